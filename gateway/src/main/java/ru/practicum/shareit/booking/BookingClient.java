@@ -2,26 +2,31 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.client.BaseClient;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "blocking", matchIfMissing = true)
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory shareitServerRequestFactory) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .requestFactory(() -> shareitServerRequestFactory)
                 .build()
         );
     }
@@ -30,20 +35,34 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingItemRequestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public ResponseEntity<Object> createBatch(long userId, List<BookItemRequestDto> bookingItemRequestDtos) {
+        return post("/batch", userId, bookingItemRequestDtos);
     }
 
-    public ResponseEntity<Object> getAll(long userId, String status, int from, int size) {
+    public ResponseEntity<StreamingResponseBody> getBooking(long userId, Long bookingId) {
+        return relay("/" + bookingId, userId, null);
+    }
+
+    public ResponseEntity<StreamingResponseBody> getAll(long userId, String status, int from, int size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", status, "cursor", cursor, "size", size);
+
+            return relay("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("state", status, "from", from, "size", size);
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return relay("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwner(long userId, String status, Integer from, Integer size) {
+    public ResponseEntity<StreamingResponseBody> getAllBookingByOwner(long userId, String status, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", status, "cursor", cursor, "size", size);
+
+            return relay("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("state", status, "from", from, "size", size);
 
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return relay("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
@@ -2,10 +2,12 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
@@ -13,13 +15,17 @@ import ru.practicum.shareit.exception.ValidationException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "blocking", matchIfMissing = true)
 @Controller
 @Validated
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -34,29 +40,43 @@ public class BookingController {
         return bookingClient.create(userId, bookItemRequestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody List<BookItemRequestDto> bookItemRequestDtos) throws ValidationException {
+        if (bookItemRequestDtos.isEmpty() || bookItemRequestDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество бронирований в пакете должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+
+        log.info("Получен запрос к эндпоинту: '{} {}', Бронирований: {}", "POST", "/bookings/batch",
+                bookItemRequestDtos.size());
+        return bookingClient.createBatch(userId, bookItemRequestDtos);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long id) {
+    public ResponseEntity<StreamingResponseBody> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long id) {
         log.info("GET booking id={}", id);
         return bookingClient.getBooking(userId, id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+    public ResponseEntity<StreamingResponseBody> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                          @RequestParam(defaultValue = "ALL") String state,
                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                         @RequestParam(defaultValue = "20") @Positive int size) throws Throwable {
+                                         @RequestParam(defaultValue = "20") @Positive int size,
+                                         @RequestParam(required = false) String cursor) throws Throwable {
         BookingState.from(state).orElseThrow(() -> new ValidationException("Ошибка при выводе всех бронирований: передан неверный статус"));
-        return bookingClient.getAll(userId, state, from, size);
+        return bookingClient.getAll(userId, state, from, size, cursor);
     }
 
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+    public ResponseEntity<StreamingResponseBody> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                        @RequestParam(defaultValue = "ALL") String state,
                                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                       @RequestParam(defaultValue = "20") @Positive int size) throws Throwable {
+                                                       @RequestParam(defaultValue = "20") @Positive int size,
+                                                       @RequestParam(required = false) String cursor) throws Throwable {
         BookingState.from(state).orElseThrow(() -> new ValidationException("Ошибка при выводе всех бронирований: передан неверный статус"));
-        return bookingClient.getAllBookingByOwner(userId, state, from, size);
+        return bookingClient.getAllBookingByOwner(userId, state, from, size, cursor);
     }
 
     @PatchMapping("/{bookingId}")
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@Service
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl,
+                                 @Value("${shareit-gateway.reactive.request-timeout:10s}") Duration requestTimeout,
+                                 WebClient.Builder builder, ReactorClientHttpConnector shareitServerConnector) {
+        super(builder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .clientConnector(shareitServerConnector)
+                .build(), requestTimeout);
+    }
+
+    public Mono<ResponseEntity<Object>> create(long userId, BookItemRequestDto bookingItemRequestDto) {
+        return post("", userId, bookingItemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> createBatch(long userId, List<BookItemRequestDto> bookingItemRequestDtos) {
+        return post("/batch", userId, bookingItemRequestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAll(long userId, String status, int from, int size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", status, "cursor", cursor, "size", size);
+
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of("state", status, "from", from, "size", size);
+
+        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingByOwner(long userId, String status, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", status, "cursor", cursor, "size", size);
+
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of("state", status, "from", from, "size", size);
+
+        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> approve(long userId, long bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters);
+    }
+}
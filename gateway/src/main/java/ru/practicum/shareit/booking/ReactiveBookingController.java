@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ValidationException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@Controller
+@Validated
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+public class ReactiveBookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @Valid @RequestBody BookItemRequestDto bookItemRequestDto) throws ValidationException {
+        if (bookItemRequestDto.getEnd().isBefore(bookItemRequestDto.getStart())) {
+            throw new ValidationException("Время окончания не может быть больше времени начала");
+        }
+
+        log.info("Получен запрос к эндпоинту: '{} {}', Бронирование: ItemId: {}", "POST", "/bookings",
+                bookItemRequestDto.getItemId());
+        return bookingClient.create(userId, bookItemRequestDto);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBatch(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<BookItemRequestDto> bookItemRequestDtos) throws ValidationException {
+        if (bookItemRequestDtos.isEmpty() || bookItemRequestDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество бронирований в пакете должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+
+        log.info("Получен запрос к эндпоинту: '{} {}', Бронирований: {}", "POST", "/bookings/batch",
+                bookItemRequestDtos.size());
+        return bookingClient.createBatch(userId, bookItemRequestDtos);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long id) {
+        log.info("GET booking id={}", id);
+        return bookingClient.getBooking(userId, id);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestParam(defaultValue = "ALL") String state,
+                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                         @RequestParam(defaultValue = "20") @Positive int size,
+                                         @RequestParam(required = false) String cursor) throws Throwable {
+        BookingState.from(state).orElseThrow(() -> new ValidationException("Ошибка при выводе всех бронирований: передан неверный статус"));
+        return bookingClient.getAll(userId, state, from, size, cursor);
+    }
+
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Object>> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                       @RequestParam(defaultValue = "20") @Positive int size,
+                                                       @RequestParam(required = false) String cursor) throws Throwable {
+        BookingState.from(state).orElseThrow(() -> new ValidationException("Ошибка при выводе всех бронирований: передан неверный статус"));
+        return bookingClient.getAllBookingByOwner(userId, state, from, size, cursor);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @PathVariable long bookingId, @RequestParam Boolean approved) {
+        return bookingClient.approve(userId, bookingId, approved);
+    }
+}
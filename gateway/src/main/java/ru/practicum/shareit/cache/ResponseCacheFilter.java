@@ -0,0 +1,231 @@
+package ru.practicum.shareit.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Кэш ответов сервера на повторяющиеся GET-запросы. Ключ — путь, строка запроса и {@code X-Sharer-User-Id},
+ * время жизни задаётся для каждого маршрута отдельно. Ответы помечены своим путём, и для каждой метки хранится
+ * набор ключей. Изменяющий запрос (POST, PATCH, DELETE) удаляет только ответы с затронутыми метками: изменённого
+ * пользователя или вещи, а также поиска и ленты запросов, в которых видны вещи. Бронирование затрагивает
+ * страницу своей вещи, её id берётся из ответа сервера.
+ * <p>
+ * Фильтр стоит перед контроллерами, поэтому работает одинаково в блокирующем и неблокирующем режиме:
+ * для неблокирующих контроллеров ответ сохраняется при асинхронной диспетчеризации.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String ITEM_SEARCH = "/items/search";
+    private static final String REQUESTS_ALL = "/requests/all";
+    private static final Pattern ID = Pattern.compile("\\d+");
+
+    private final ObjectMapper objectMapper;
+    private final Map<Pattern, Duration> routes;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ObjectMapper objectMapper,
+                               @Value("${shareit-gateway.response-cache.max-size:10000}") long maxSize,
+                               @Value("${shareit-gateway.response-cache.items-ttl:5s}") Duration itemsTtl,
+                               @Value("${shareit-gateway.response-cache.search-ttl:30s}") Duration searchTtl,
+                               @Value("${shareit-gateway.response-cache.requests-ttl:10s}") Duration requestsTtl,
+                               @Value("${shareit-gateway.response-cache.users-ttl:30s}") Duration usersTtl) {
+        this.objectMapper = objectMapper;
+        this.routes = Map.of(
+                Pattern.compile("/items/\\d+"), itemsTtl,
+                Pattern.compile("/items/search"), searchTtl,
+                Pattern.compile("/requests/all"), requestsTtl,
+                Pattern.compile("/users/\\d+"), usersTtl);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TtlExpiry())
+                .removalListener(this::unindex)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            if (path.startsWith("/bookings")) {
+                ContentCachingResponseWrapper wrapper = wrap(response);
+                filterChain.doFilter(request, wrapper);
+                if (!isAsyncStarted(request)) {
+                    evictItemsOf(wrapper);
+                    wrapper.copyBodyToResponse();
+                }
+                return;
+            }
+            filterChain.doFilter(request, response);
+            if (!isAsyncStarted(request)) {
+                evict(tagsEvictedBy(path));
+            }
+            return;
+        }
+        Duration ttl = ttlOf(path);
+        if (ttl == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = keyOf(request);
+        if (!isAsyncDispatch(request)) {
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                cached.writeTo(response);
+                return;
+            }
+        }
+        ContentCachingResponseWrapper wrapper = wrap(response);
+        filterChain.doFilter(request, wrapper);
+        if (!isAsyncStarted(request)) {
+            if (wrapper.getStatus() == HttpStatus.OK.value()) {
+                keysByTag.computeIfAbsent(path, tag -> ConcurrentHashMap.newKeySet()).add(key);
+                cache.put(key, new CachedResponse(path, wrapper.getContentType(), wrapper.getHeader(NEXT_CURSOR_HEADER),
+                        wrapper.getContentAsByteArray(), ttl));
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static ContentCachingResponseWrapper wrap(HttpServletResponse response) {
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        return wrapper != null ? wrapper : new ContentCachingResponseWrapper(response);
+    }
+
+    private Duration ttlOf(String path) {
+        for (Map.Entry<Pattern, Duration> route : routes.entrySet()) {
+            if (route.getKey().matcher(path).matches()) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getRequestURI() + (query != null ? "?" + query : "") + "|" + request.getHeader(USER_HEADER);
+    }
+
+    private static List<String> tagsEvictedBy(String path) {
+        String[] segments = path.split("/");
+        String resource = segments.length > 1 ? segments[1] : "";
+        String id = segments.length > 2 && ID.matcher(segments[2]).matches() ? segments[2] : null;
+        switch (resource) {
+            case "users":
+                return id != null ? List.of("/users/" + id) : List.of();
+            case "items":
+                return id != null ? List.of("/items/" + id, ITEM_SEARCH, REQUESTS_ALL) : List.of(ITEM_SEARCH, REQUESTS_ALL);
+            case "requests":
+                return List.of(REQUESTS_ALL);
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * Бронирование меняет страницу вещи: id вещей берутся из ответа сервера, одиночного или пакетного.
+     */
+    private void evictItemsOf(ContentCachingResponseWrapper wrapper) throws IOException {
+        if (wrapper.getStatus() >= HttpStatus.BAD_REQUEST.value() || wrapper.getContentSize() == 0) {
+            return;
+        }
+        List<String> tags = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(wrapper.getContentAsByteArray()).findValues("item")) {
+            if (item.hasNonNull("id")) {
+                tags.add("/items/" + item.get("id").asLong());
+            }
+        }
+        evict(tags);
+    }
+
+    private void evict(List<String> tags) {
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        }
+    }
+
+    private void unindex(String key, CachedResponse value, RemovalCause cause) {
+        if (value != null && cause.wasEvicted()) {
+            keysByTag.computeIfPresent(value.tag, (tag, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedResponse {
+        private final String tag;
+        private final String contentType;
+        private final String nextCursor;
+        private final byte[] body;
+        private final Duration ttl;
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(HttpStatus.OK.value());
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            if (nextCursor != null) {
+                response.setHeader(NEXT_CURSOR_HEADER, nextCursor);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static class TtlExpiry implements Expiry<String, CachedResponse> {
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package ru.practicum.shareit.client;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class BaseClient {
+    private static final List<String> PASS_THROUGH_HEADERS = List.of("X-Next-Cursor");
+
     protected final RestTemplate rest;
+    private final Map<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
@@ -24,7 +43,7 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return coalesce(path, userId, parameters, () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -79,20 +98,95 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Тело ответа копируется в {@code target} по мере чтения, поэтому память шлюза не зависит от размера выгрузки.
+     */
+    protected void stream(String path, MediaType mediaType, OutputStream target) {
+        rest.execute(path, HttpMethod.GET, request -> request.getHeaders().setAccept(List.of(mediaType)), response -> {
+            StreamUtils.copy(response.getBody(), target);
+            return null;
+        });
+    }
+
+    /**
+     * GET-запрос, ответ которого передаётся клиенту потоком. Запрос выполняется сразу, чтобы статус
+     * и заголовки сервера попали в ответ шлюза, а тело копируется уже при записи ответа и в памяти
+     * шлюза целиком не держится. Для маршрутов, которые кэшируются и объединяются, остаётся {@link #get}.
+     */
+    protected ResponseEntity<StreamingResponseBody> relay(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        int status;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            response = request.execute();
+            status = response.getRawStatusCode();
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("Ошибка ввода-вывода при запросе GET " + uri + ": " + e.getMessage(), e);
+        }
+        ClientHttpResponse serverResponse = response;
+        return ResponseEntity.status(status)
+                .headers(passThroughHeaders(serverResponse.getHeaders()))
+                .body(target -> {
+                    try (serverResponse) {
+                        StreamUtils.copy(serverResponse.getBody(), target);
+                    }
+                });
+    }
+
+    /**
+     * Одинаковые GET-запросы, пришедшие одновременно, разделяют один вызов сервера: первый запрос
+     * идёт на сервер, остальные ждут его ответа и получают копию.
+     */
+    private ResponseEntity<Object> coalesce(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                            Supplier<ResponseEntity<Object>> serverCall) {
+        String key = requestKey(path, userId, parameters);
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> inFlightCall = inFlight.putIfAbsent(key, call);
+        if (inFlightCall != null) {
+            coalescedCounter(getClass(), path).increment();
+            try {
+                return copyOf(inFlightCall.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            ResponseEntity<Object> response = serverCall.get();
+            call.complete(response);
+            return response;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        RequestCallback requestCallback = rest.httpEntityCallback(requestEntity);
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.execute(path, method, requestCallback, BaseClient::copyResponse, parameters);
             }
+            return rest.execute(path, method, requestCallback, BaseClient::copyResponse);
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,20 +199,52 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Тело ответа сервера передаётся клиенту как есть, без разбора JSON. Ответ копируется в массив байт:
+     * его разделяют объединённые запросы и сохраняет кэш ответов, остальные GET-запросы идут через {@link #relay}.
+     */
+    private static ResponseEntity<Object> copyResponse(ClientHttpResponse response) throws IOException {
+        byte[] body = StreamUtils.copyToByteArray(response.getBody());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                .headers(passThroughHeaders(response.getHeaders()));
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
 
+    static String requestKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return path + "|" + (parameters != null ? new TreeMap<>(parameters) : "") + "|" + userId;
+    }
+
+    static Counter coalescedCounter(Class<?> client, String path) {
+        int query = path.indexOf('?');
+        String route = (query >= 0 ? path.substring(0, query) : path).replaceAll("/\\d+", "/{id}");
+        return Metrics.counter("shareit.gateway.coalesced", "client", client.getSimpleName(),
+                "route", route.isEmpty() ? "/" : route);
+    }
+
+    static ResponseEntity<Object> copyOf(ResponseEntity<Object> response) {
+        Object body = response.getBody() instanceof byte[] ? ((byte[]) response.getBody()).clone() : response.getBody();
+        return new ResponseEntity<>(body, response.getHeaders(), response.getStatusCode());
+    }
+
+    static HttpHeaders passThroughHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders.getContentType() != null) {
+            headers.setContentType(serverHeaders.getContentType());
+        }
+        for (String name : PASS_THROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+
     protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
         return get(path, null, parameters);
     }
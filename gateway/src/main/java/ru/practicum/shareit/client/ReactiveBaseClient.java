@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Неблокирующий аналог {@link BaseClient}: запрос к серверу не занимает поток на время ожидания ответа.
+ * Ответы сервера отдаются клиенту так же, как в {@link BaseClient}, в виде байт; при превышении
+ * таймаута запроса возвращается 504.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient webClient;
+    private final Duration requestTimeout;
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveBaseClient(WebClient webClient, Duration requestTimeout) {
+        this.webClient = webClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    /**
+     * Одинаковые GET-запросы, пришедшие одновременно, подписываются на один вызов сервера и получают копии ответа.
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String key = BaseClient.requestKey(path, userId, parameters);
+        AtomicBoolean leader = new AtomicBoolean();
+        Mono<ResponseEntity<Object>> call = inFlight.computeIfAbsent(key, k -> {
+            leader.set(true);
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache();
+        });
+        if (!leader.get()) {
+            BaseClient.coalescedCounter(getClass(), path).increment();
+        }
+        return call.map(BaseClient::copyOf);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, @Nullable Map<String, Object> parameters) {
+        return get(path, null, parameters);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Object>> delete(String path) {
+        return delete(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    /**
+     * Строки ответа передаются клиенту по мере получения. Таймаут запроса здесь не применяется:
+     * выгрузка может идти дольше, чем обычный ответ.
+     */
+    protected Flux<String> streamLines(String path, MediaType mediaType) {
+        return webClient.method(HttpMethod.GET)
+                .uri(path, Map.of())
+                .accept(mediaType)
+                .retrieve()
+                .bodyToFlux(String.class)
+                .map(line -> line + "\n");
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(ReactiveBaseClient::prepareGatewayResponse)
+                .timeout(requestTimeout)
+                .onErrorResume(TimeoutException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build()));
+    }
+
+    private HttpHeaders defaultHeaders(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(byte[].class)
+                    .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                            .headers(BaseClient.passThroughHeaders(entity.getHeaders()))
+                            .body(entity.getBody()));
+        }
+        return response.toEntity(byte[].class)
+                .map(entity -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(entity.getStatusCode());
+                    if (entity.hasBody()) {
+                        return responseBuilder.body(entity.getBody());
+                    }
+                    return responseBuilder.build();
+                });
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Общий пул соединений с сервером для неблокирующих клиентов. Включается свойством
+ * {@code shareit-gateway.client-mode=reactive}, по умолчанию шлюз работает через {@link BaseClient}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+public class ReactiveClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-gateway.reactive.max-connections:200}") int maxConnections,
+            @Value("${shareit-gateway.reactive.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${shareit-gateway.reactive.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-gateway.reactive.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareitServerConnector(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-gateway.reactive.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.reactive.response-timeout:5s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
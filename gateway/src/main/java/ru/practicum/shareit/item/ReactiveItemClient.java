@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ReviewDto;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@Service
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit-gateway.reactive.request-timeout:10s}") Duration requestTimeout,
+                              WebClient.Builder builder, ReactorClientHttpConnector shareitServerConnector) {
+        super(builder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .clientConnector(shareitServerConnector)
+                .build(), requestTimeout);
+    }
+
+    public Mono<ResponseEntity<Object>> create(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
+        return get("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllItemsByUser(long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> search(String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
+
+        return get("/search?text={text}&from={from}&size={size}", parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(long userId, long itemId, ReviewDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto);
+    }
+}
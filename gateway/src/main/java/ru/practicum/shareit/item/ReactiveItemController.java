@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ReviewDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@RestController
+@Slf4j
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ReactiveItemController {
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @Valid @RequestBody ItemDto itemDto) {
+        return itemClient.create(userId, itemDto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long id,
+                                         @RequestBody ItemDto itemDto) {
+        return itemClient.update(userId, id, itemDto);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.getItem(itemId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                    @RequestParam(defaultValue = "20") @Positive int size) {
+        return itemClient.getAllItemsByUser(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
+                                         @RequestParam(defaultValue = "0") @Min(0) int from,
+                                         @RequestParam(defaultValue = "20") @Positive int size) {
+        return itemClient.search(text, from, size);
+    }
+
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @Valid @RequestBody ReviewDto reviewDto,
+                                                @PathVariable long itemId) {
+        return itemClient.createComment(userId, itemId, reviewDto);
+    }
+}
\ No newline at end of file
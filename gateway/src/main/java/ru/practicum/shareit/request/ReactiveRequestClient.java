@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.RequestDto;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@Service
+public class ReactiveRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    @Autowired
+    public ReactiveRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                                 @Value("${shareit-gateway.reactive.request-timeout:10s}") Duration requestTimeout,
+                                 WebClient.Builder builder, ReactorClientHttpConnector shareitServerConnector) {
+        super(builder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .clientConnector(shareitServerConnector)
+                .build(), requestTimeout);
+    }
+
+    public Mono<ResponseEntity<Object>> create(long userId, RequestDto itemRequestDto) {
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getAll(long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllWithPageable(long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+            return get("/all?cursor={cursor}&size={size}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequest(long userId, long requestId) {
+        return get("/" + requestId, userId);
+    }
+}
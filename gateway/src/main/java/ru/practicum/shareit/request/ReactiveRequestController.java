@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.RequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+@RequestMapping(path = "/requests")
+public class ReactiveRequestController {
+    private final ReactiveRequestClient requestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @Valid @RequestBody RequestDto requestDto) {
+        return requestClient.create(userId, requestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return requestClient.getAll(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Object>> getAllWithPageable(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                     @RequestParam(defaultValue = "20") @Positive Integer size,
+                                                     @RequestParam(required = false) String cursor) {
+        return requestClient.getAllWithPageable(userId, from, size, cursor);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Object>> getItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long requestId) {
+        return requestClient.getItemRequest(userId, requestId);
+    }
+}
@@ -2,15 +2,18 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "blocking", matchIfMissing = true)
 @RestController
 @RequiredArgsConstructor
 @Slf4j
@@ -26,19 +29,20 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<StreamingResponseBody> getAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return requestClient.getAll(userId);
     }
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllWithPageable(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                                     @RequestParam(defaultValue = "20") @Positive Integer size) {
-        return requestClient.getAllWithPageable(userId, from, size);
+                                                     @RequestParam(defaultValue = "20") @Positive Integer size,
+                                                     @RequestParam(required = false) String cursor) {
+        return requestClient.getAllWithPageable(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<StreamingResponseBody> getItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long requestId) {
         return requestClient.getItemRequest(userId, requestId);
     }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@Service
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit-gateway.reactive.request-timeout:10s}") Duration requestTimeout,
+                              WebClient.Builder builder, ReactorClientHttpConnector shareitServerConnector) {
+        super(builder
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .clientConnector(shareitServerConnector)
+                .build(), requestTimeout);
+    }
+
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> update(long userId, UserDto userDto) {
+        return patch("/" + userId, userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> delete(long userId) {
+        return delete("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAll() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<Object>> getAll(int from, int size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+
+        return get("?from={from}&size={size}", parameters);
+    }
+
+    public Flux<String> streamAll() {
+        return streamLines("", MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<Object>> getUser(long userId) {
+        return get("/" + userId);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Slf4j
+@ConditionalOnProperty(name = "shareit-gateway.client-mode", havingValue = "reactive")
+@RestController
+@Validated
+@RequiredArgsConstructor
+@RequestMapping("/users")
+public class ReactiveUserController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
+        return userClient.create(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> update(@Min(1) @NotNull @PathVariable Long userId, @RequestBody UserDto userDto) {
+        return userClient.update(userId, userDto);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> delete(@Min(1) @NotNull @PathVariable Long userId) {
+        return userClient.delete(userId);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUser(@Min(1) @NotNull @PathVariable Long userId) {
+        return userClient.getUser(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAll(@RequestParam(required = false) @PositiveOrZero Integer from,
+                                               @RequestParam(required = false) @Positive Integer size) {
+        if (from == null && size == null) {
+            return userClient.getAll();
+        }
+        return userClient.getAll(from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamAll() {
+        return userClient.streamAll();
+    }
+}
@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Переводит первичные ключи с IDENTITY на последовательности, чтобы Hibernate мог выдавать id
+ * блоками и группировать вставки в JDBC-пакеты. Последовательность каждой таблицы начинается
+ * со следующего после максимального id, поэтому id продолжают расти без повторов.
+ */
+public class V3__IdSequences extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> ID_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ID_COLUMNS.put("users", "user_id");
+        ID_COLUMNS.put("requests", "request_id");
+        ID_COLUMNS.put("items", "item_id");
+        ID_COLUMNS.put("bookings", "booking_id");
+        ID_COLUMNS.put("reviews", "review_id");
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> entry : ID_COLUMNS.entrySet()) {
+                String table = entry.getKey();
+                String column = entry.getValue();
+                long start;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+                    resultSet.next();
+                    start = resultSet.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start + " INCREMENT BY " + ALLOCATION_SIZE);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " DROP IDENTITY");
+            }
+        }
+    }
+}
@@ -2,12 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.mapper.exception.ConflictException;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -20,11 +26,18 @@ public class BookingController {
 
     @PostMapping
     public BookingDto create(@RequestBody BookingDtoShort bookingDtoShort,
-                             @RequestHeader("X-Sharer-User-Id") long userId) throws ValidationException, EntityNotFoundException {
+                             @RequestHeader("X-Sharer-User-Id") long userId) throws ValidationException, EntityNotFoundException, ConflictException {
         log.info("Создаём новое бронирование...");
         return bookingService.create(bookingDtoShort, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestBody List<BookingDtoShort> bookingDtoShorts,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId) throws ValidationException, EntityNotFoundException {
+        log.info("Создаём {} бронирований...", bookingDtoShorts.size());
+        return bookingService.createBatch(bookingDtoShorts, userId);
+    }
+
     @GetMapping("/{id}")
     public BookingDto getBooking(@PathVariable long id,
                                  @RequestHeader("X-Sharer-User-Id") long userId) throws EntityNotFoundException {
@@ -33,20 +46,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
-                                   @RequestParam(defaultValue = "ALL") String state,
-                                   @RequestParam(defaultValue = "0") int from,
-                                   @RequestParam(defaultValue = "20") int size) throws Throwable {
-        return bookingService.getAll(userId, state, from, size);
+    public ResponseEntity<List<BookingListDto>> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestParam(defaultValue = "0") int from,
+                                                   @RequestParam(defaultValue = "20") int size,
+                                                   @RequestParam(required = false) String cursor) throws Throwable {
+        if (cursor != null) {
+            return toPageResponse(bookingService.getAllAfter(userId, state, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getAll(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @RequestParam(defaultValue = "ALL") String state,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "20") int size) throws ValidationException, EntityNotFoundException {
+    public ResponseEntity<List<BookingListDto>> getAllBookingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 @RequestParam(defaultValue = "0") int from,
+                                                                 @RequestParam(defaultValue = "20") int size,
+                                                                 @RequestParam(required = false) String cursor) throws ValidationException, EntityNotFoundException {
         log.info("Выводим все бронирования пользователя...");
-        return bookingService.getAllBookingByOwner(userId, state, from, size);
+        if (cursor != null) {
+            return toPageResponse(bookingService.getAllBookingByOwnerAfter(userId, state, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getAllBookingByOwner(userId, state, from, size));
     }
 
     @PatchMapping("/{bookingId}")
@@ -56,4 +77,12 @@ public class BookingController {
         log.info("Подтверждаем бронирование...");
         return bookingService.approve(userId, bookingId, approved);
     }
+
+    private static ResponseEntity<List<BookingListDto>> toPageResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
\ No newline at end of file
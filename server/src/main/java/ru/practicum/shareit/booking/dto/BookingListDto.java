@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в списках: вместо сущностей вещи и автора только их идентификаторы и название вещи.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingListDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+    private ItemShort item;
+    private BookerShort booker;
+
+    public BookingListDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Long itemId, String itemName, Long bookerId) {
+        this(id, start, end, status, new ItemShort(itemId, itemName), new BookerShort(bookerId));
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemShort {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BookerShort {
+        private Long id;
+    }
+}
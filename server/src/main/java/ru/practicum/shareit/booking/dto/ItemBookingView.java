@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingView {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+
+    String getKind();
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс активных (WAITING и APPROVED) бронирований по вещам.
+ * Для каждой вещи хранятся непересекающиеся отрезки, отсортированные по началу, поэтому проверка
+ * пересечения — два поиска в дереве. Отрезок помнит свои бронирования: пересекающиеся бронирования из базы
+ * попадают в один отрезок, и при освобождении одного из них отрезок собирается заново из оставшихся.
+ * Время хранится с точностью до микросекунд, как в базе, чтобы освобождение по значениям из базы
+ * находило интервал, зарезервированный по значениям из запроса.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        List<BookingDtoShort> active = bookingRepository.findActiveIntervals(ACTIVE_STATUSES, LocalDateTime.now());
+        for (BookingDtoShort interval : active) {
+            if (!interval.getEnd().isBefore(interval.getStart())) {
+                intervalsOf(interval.getItemId()).add(new Interval(interval.getStart(), interval.getEnd()));
+            }
+        }
+        log.info("Индекс бронирований заполнен: {} интервалов", active.size());
+    }
+
+    public boolean tryReserve(long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervalsOf(itemId).tryReserve(new Interval(start, end), LocalDateTime.now());
+    }
+
+    public void release(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals itemIntervals = intervals.get(itemId);
+        if (itemIntervals != null) {
+            itemIntervals.release(new Interval(start, end));
+        }
+    }
+
+    /**
+     * Освобождает интервал после фиксации текущей транзакции: до неё отклонённое бронирование
+     * ещё может вернуться при откате.
+     */
+    public void releaseAfterCommit(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(itemId, start, end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(itemId, start, end);
+            }
+        });
+    }
+
+    /**
+     * Освобождает интервал, если текущая транзакция откатится. Вставки пакетом выполняются при фиксации,
+     * поэтому ошибку базы нельзя перехватить вокруг {@code saveAll}.
+     */
+    public void releaseOnRollback(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    release(itemId, start, end);
+                }
+            }
+        });
+    }
+
+    private ItemIntervals intervalsOf(long itemId) {
+        return intervals.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static final class Interval {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(LocalDateTime start, LocalDateTime end) {
+            this.start = start.truncatedTo(ChronoUnit.MICROS);
+            this.end = end.truncatedTo(ChronoUnit.MICROS);
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.equals(otherStart) || (start.isBefore(otherEnd) && end.isAfter(otherStart));
+        }
+
+        boolean sameAs(Interval other) {
+            return start.equals(other.start) && end.equals(other.end);
+        }
+    }
+
+    private static final class Segment {
+        private LocalDateTime end;
+        private final List<Interval> bookings = new ArrayList<>(1);
+
+        Segment(LocalDateTime end) {
+            this.end = end;
+        }
+    }
+
+    private static class ItemIntervals {
+        private final NavigableMap<LocalDateTime, Segment> segments = new TreeMap<>();
+
+        synchronized boolean tryReserve(Interval interval, LocalDateTime now) {
+            removeFinished(now);
+            if (overlaps(interval)) {
+                return false;
+            }
+            add(interval);
+            return true;
+        }
+
+        synchronized void release(Interval interval) {
+            Map.Entry<LocalDateTime, Segment> entry = segments.floorEntry(interval.start);
+            if (entry == null) {
+                return;
+            }
+            Segment segment = entry.getValue();
+            if (!segment.bookings.removeIf(booking -> booking.sameAs(interval))) {
+                return;
+            }
+            segments.remove(entry.getKey());
+            segment.bookings.forEach(this::add);
+        }
+
+        synchronized void add(Interval interval) {
+            LocalDateTime start = interval.start;
+            Segment merged = new Segment(interval.end);
+            merged.bookings.add(interval);
+            Map.Entry<LocalDateTime, Segment> before = segments.floorEntry(start);
+            if (before != null && overlaps(before, start, merged.end)) {
+                start = before.getKey();
+                absorb(merged, segments.remove(start));
+            }
+            Map.Entry<LocalDateTime, Segment> after = segments.higherEntry(start);
+            while (after != null && overlaps(after, start, merged.end)) {
+                absorb(merged, segments.remove(after.getKey()));
+                after = segments.higherEntry(start);
+            }
+            segments.put(start, merged);
+        }
+
+        private static void absorb(Segment target, Segment absorbed) {
+            target.bookings.addAll(absorbed.bookings);
+            if (absorbed.end.isAfter(target.end)) {
+                target.end = absorbed.end;
+            }
+        }
+
+        private void removeFinished(LocalDateTime now) {
+            segments.headMap(now, false).values().removeIf(segment -> !segment.end.isAfter(now));
+        }
+
+        private boolean overlaps(Interval interval) {
+            Map.Entry<LocalDateTime, Segment> before = segments.floorEntry(interval.start);
+            if (before != null && overlaps(before, interval.start, interval.end)) {
+                return true;
+            }
+            Map.Entry<LocalDateTime, Segment> after = segments.higherEntry(interval.start);
+            return after != null && overlaps(after, interval.start, interval.end);
+        }
+
+        private static boolean overlaps(Map.Entry<LocalDateTime, Segment> segment, LocalDateTime start, LocalDateTime end) {
+            return new Interval(segment.getKey(), segment.getValue().end).overlaps(start, end);
+        }
+    }
+}
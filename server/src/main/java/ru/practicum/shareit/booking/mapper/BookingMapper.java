@@ -4,9 +4,13 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoId;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Component
 public class BookingMapper {
 
@@ -28,10 +32,24 @@ public class BookingMapper {
                 booking.getStatus());
     }
 
+    public static BookingListDto toBookingListDto(Booking booking) {
+        return new BookingListDto(booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                booking.getItem().getId(),
+                booking.getItem().getName(),
+                booking.getBooker().getId());
+    }
+
+    /**
+     * Время обрезается до микросекунд — точности столбцов базы, — чтобы сохранённое бронирование
+     * совпадало с интервалом, зарезервированным в индексе.
+     */
     public static Booking fromShortToBooking(BookingDtoShort bookingDtoShort) {
         return new Booking(bookingDtoShort.getId(),
-                bookingDtoShort.getStart(),
-                bookingDtoShort.getEnd(),
+                truncate(bookingDtoShort.getStart()),
+                truncate(bookingDtoShort.getEnd()),
                 null,
                 null,
                 BookingStatus.WAITING);
@@ -40,4 +58,8 @@ public class BookingMapper {
     public static BookingDtoId toBookingDtoId(Booking booking) {
         return new BookingDtoId(booking.getId(), booking.getBooker().getId());
     }
-}
\ No newline at end of file
+
+    private static LocalDateTime truncate(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingFilter {
+    private final long userId;
+    private final boolean byOwner;
+    private final BookingState state;
+    private final LocalDateTime now;
+}
@@ -2,14 +2,21 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
     @Query("SELECT b " + "FROM Booking b LEFT JOIN User AS us ON b.booker.id = us.id " +
             "WHERE us.id = ?1 " + "AND ?2 BETWEEN b.start AND b.end " + "ORDER BY b.start DESC")
@@ -24,23 +31,27 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> searchBookingByItemOwnerId(long id, Pageable pageable);
 
-    List<Booking> searchBookingByBookerIdAndItemIdAndEndIsBeforeAndStatus(long id, long itemId, LocalDateTime time, BookingStatus status);
-
     List<Booking> searchByBookerIdAndStartAfter(long userId, LocalDateTime time, Pageable pageable);
 
     List<Booking> searchBookingsByItemIdAndEndIsBeforeOrderByEndDesc(long id, LocalDateTime time);
 
     List<Booking> searchBookingsByItemIdAndStartIsAfterOrderByStartDesc(long id, LocalDateTime time);
 
-    List<Booking> searchBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(long id, LocalDateTime time1, LocalDateTime time2, Pageable pageable);
-
-    List<Booking> searchBookingsByBookerIdAndEndIsBeforeOrderByEndDesc(long id, LocalDateTime time, Pageable pageable);
-
-    List<Booking> searchBookingsByBookerIdAndEndIsAfterOrderByEndDesc(long id, LocalDateTime time, Pageable pageable);
-
-    List<Booking> searchBookingsByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(long id, LocalDateTime time1, LocalDateTime time2, Pageable pageable);
-
-    List<Booking> searchBookingsByItemOwnerIdAndEndIsBeforeOrderByEndDesc(long id, LocalDateTime time, Pageable pageable);
+    @Query(value = "SELECT ranked.booking_id AS \"id\", ranked.booker_id AS \"bookerId\", " +
+            "ranked.item_id AS \"itemId\", ranked.kind AS \"kind\" " +
+            "FROM (SELECT b.booking_id, b.booker_id, b.item_id, 'LAST' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.end_date < :now " +
+            "UNION ALL " +
+            "SELECT b.booking_id, b.booker_id, b.item_id, 'NEXT' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.start_date > :now) ranked " +
+            "WHERE ranked.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(CASE WHEN b.start > :now THEN b.start ELSE b.end END) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.end > :now")
+    LocalDateTime findNextBoundary(@Param("itemId") long itemId, @Param("now") LocalDateTime now);
 
     List<Booking> searchBookingsByBookerIdAndEndIsBefore(long userId, LocalDateTime time, Pageable pageable);
 
@@ -48,10 +59,29 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> searchBookingByItemOwnerIdAndStartIsAfter(long userId, LocalDateTime time, Pageable pageable);
 
-    List<Booking> searchBookingsByItemOwnerIdAndEndIsAfterOrderByEndDesc(long id, LocalDateTime time, Pageable pageable);
-
-    List<Booking> searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(long id, BookingStatus status, Pageable pageable);
-
     List<Booking> searchBookingsByBookerIdAndStatus(long userId, BookingStatus status, Pageable pageable);
 
-}
\ No newline at end of file
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDtoShort(b.id, b.start, b.end, b.item.id) " +
+            "FROM Booking b WHERE b.status IN ?1 AND b.end > ?2")
+    List<BookingDtoShort> findActiveIntervals(Collection<BookingStatus> statuses, LocalDateTime time);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id = :bookingId AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("bookingId") long bookingId, @Param("ownerId") long ownerId,
+                              @Param("status") BookingStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.id <> :bookingId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.start < :end AND b.end > :start")
+    List<Booking> findOverlappingWaitingForUpdate(@Param("itemId") long itemId, @Param("bookingId") long bookingId,
+                                                  @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED " +
+            "WHERE b.id IN :bookingIds AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int rejectWaiting(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingListDto> search(BookingFilter filter, Pageable pageable);
+
+    List<BookingListDto> searchAfter(BookingFilter filter, KeysetCursor after, int size);
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final Map<BookingState, StatePredicate> STATE_PREDICATES = new EnumMap<>(BookingState.class);
+
+    static {
+        STATE_PREDICATES.put(BookingState.ALL, (cb, booking, now) -> cb.conjunction());
+        STATE_PREDICATES.put(BookingState.CURRENT, (cb, booking, now) ->
+                cb.and(cb.lessThan(booking.get("start"), now), cb.greaterThan(booking.get("end"), now)));
+        STATE_PREDICATES.put(BookingState.PAST, (cb, booking, now) -> cb.lessThan(booking.get("end"), now));
+        STATE_PREDICATES.put(BookingState.FUTURE, (cb, booking, now) -> cb.greaterThan(booking.get("end"), now));
+        STATE_PREDICATES.put(BookingState.WAITING, (cb, booking, now) ->
+                cb.equal(booking.get("status"), BookingStatus.WAITING));
+        STATE_PREDICATES.put(BookingState.REJECTED, (cb, booking, now) ->
+                cb.equal(booking.get("status"), BookingStatus.REJECTED));
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingListDto> search(BookingFilter filter, Pageable pageable) {
+        return createQuery(filter, null)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<BookingListDto> searchAfter(BookingFilter filter, KeysetCursor after, int size) {
+        return createQuery(filter, after)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private TypedQuery<BookingListDto> createQuery(BookingFilter filter, KeysetCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingListDto> query = cb.createQuery(BookingListDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.isByOwner()) {
+            predicates.add(cb.equal(item.get("owner").get("id"), filter.getUserId()));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), filter.getUserId()));
+        }
+        predicates.add(STATE_PREDICATES.get(filter.getState()).toPredicate(cb, booking, filter.getNow()));
+        if (after != null) {
+            predicates.add(cb.or(cb.lessThan(start, after.getTimestamp()),
+                    cb.and(cb.equal(start, after.getTimestamp()), cb.lessThan(id, after.getId()))));
+        }
+        query.select(cb.construct(BookingListDto.class, id, start, booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), booking.get("booker").get("id")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Условие отбора бронирований для одного значения {@link BookingState}.
+     * Новое состояние добавляется одной записью в {@link #STATE_PREDICATES}.
+     */
+    private interface StatePredicate {
+        Predicate toPredicate(CriteriaBuilder cb, Root<Booking> booking, LocalDateTime now);
+    }
+}
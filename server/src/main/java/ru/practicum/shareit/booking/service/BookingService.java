@@ -1,22 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.item.mapper.exception.ConflictException;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
 
 import java.util.List;
 
 public interface BookingService {
-    BookingDto create(BookingDtoShort bookingDtoShort, long userId) throws ValidationException, EntityNotFoundException;
+    BookingDto create(BookingDtoShort bookingDtoShort, long userId) throws ValidationException, EntityNotFoundException, ConflictException;
+
+    List<BookingBatchResultDto> createBatch(List<BookingDtoShort> bookingDtoShorts, long userId) throws ValidationException, EntityNotFoundException;
 
     BookingDto getBooking(long bookingId, long userId) throws EntityNotFoundException;
 
-    List<BookingDto> getAll(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException;
+    List<BookingListDto> getAll(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException;
 
     BookingDto approve(long userId, long bookingId, Boolean approved) throws EntityNotFoundException, ValidationException;
 
-    List<BookingDto> getAllBookingByOwner(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException;
+    List<BookingListDto> getAllBookingByOwner(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException;
+
+    BookingPageDto getAllAfter(long userId, String state, String cursor, int size) throws EntityNotFoundException, ValidationException;
+
+    BookingPageDto getAllBookingByOwnerAfter(long userId, String state, String cursor, int size) throws EntityNotFoundException, ValidationException;
 
 
 }
\ No newline at end of file
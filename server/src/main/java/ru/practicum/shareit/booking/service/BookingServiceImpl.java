@@ -2,24 +2,39 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.mapper.exception.ConflictException;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +44,12 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
-    public BookingDto create(BookingDtoShort bookingDtoShort, long userId) throws ValidationException, EntityNotFoundException {
+    public BookingDto create(BookingDtoShort bookingDtoShort, long userId) throws ValidationException, EntityNotFoundException, ConflictException {
         if (bookingDtoShort.getEnd().isBefore(bookingDtoShort.getStart())) {
             throw new ValidationException("Ошибка при создании бронирования: время окончания бронирования неверное");
         }
@@ -46,7 +64,98 @@ public class BookingServiceImpl implements BookingService {
             throw new EntityNotFoundException("Ошибка при создании бронирования: поступил запрос на бронирование своей же вещи");
         }
         booking.setItem(item);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        if (!bookingIntervalIndex.tryReserve(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Ошибка при создании бронирования: вещь уже забронирована на это время");
+        }
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            bookingIntervalIndex.release(item.getId(), booking.getStart(), booking.getEnd());
+            throw e;
+        }
+        itemDetailsCache.invalidate(item.getId());
+        return BookingMapper.toBookingDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(List<BookingDtoShort> bookingDtoShorts, long userId) throws ValidationException, EntityNotFoundException {
+        if (bookingDtoShorts == null || bookingDtoShorts.isEmpty()) {
+            throw new ValidationException("Ошибка при создании бронирований: передан пустой список бронирований");
+        }
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Ошибка при создании бронирований: передан неверный Id пользователя"));
+        Set<Long> itemIds = bookingDtoShorts.stream()
+                .map(BookingDtoShort::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtoShorts.size());
+        List<Booking> accepted = new ArrayList<>();
+        List<BookingBatchResultDto> acceptedResults = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookingDtoShorts.size(); i++) {
+            BookingDtoShort bookingDtoShort = bookingDtoShorts.get(i);
+            BookingBatchResultDto result = new BookingBatchResultDto(i, HttpStatus.OK.value(), null, null);
+            results.add(result);
+            try {
+                Booking booking = toBatchBooking(bookingDtoShort, booker, items, now);
+                accepted.add(booking);
+                acceptedResults.add(result);
+            } catch (ValidationException e) {
+                reject(result, HttpStatus.BAD_REQUEST, e);
+            } catch (EntityNotFoundException e) {
+                reject(result, HttpStatus.NOT_FOUND, e);
+            } catch (ConflictException e) {
+                reject(result, HttpStatus.CONFLICT, e);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            acceptedResults.get(i).setBooking(BookingMapper.toBookingListDto(saved.get(i)));
+        }
+        accepted.stream().map(booking -> booking.getItem().getId()).distinct().forEach(itemDetailsCache::invalidateAfterCommit);
+        return results;
+    }
+
+    private Booking toBatchBooking(BookingDtoShort bookingDtoShort, User booker, Map<Long, Item> items, LocalDateTime now)
+            throws ValidationException, EntityNotFoundException, ConflictException {
+        if (bookingDtoShort.getStart() == null || bookingDtoShort.getEnd() == null) {
+            throw new ValidationException("Ошибка при создании бронирования: не указано время бронирования");
+        }
+        if (!bookingDtoShort.getEnd().isAfter(bookingDtoShort.getStart()) || bookingDtoShort.getStart().isBefore(now)) {
+            throw new ValidationException("Ошибка при создании бронирования: время окончания бронирования неверное");
+        }
+        Item item = items.get(bookingDtoShort.getItemId());
+        if (item == null) {
+            throw new EntityNotFoundException("Ошибка при создании бронирования: неверный Id вещи");
+        }
+        if (!item.getAvailable()) {
+            throw new ValidationException("Ошибка при создании бронирования: поступил запрос на бронирование недоступной вещи");
+        }
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw new EntityNotFoundException("Ошибка при создании бронирования: поступил запрос на бронирование своей же вещи");
+        }
+        Booking booking = BookingMapper.fromShortToBooking(bookingDtoShort);
+        booking.setId(null);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        if (!bookingIntervalIndex.tryReserve(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Ошибка при создании бронирования: вещь уже забронирована на это время");
+        }
+        bookingIntervalIndex.releaseOnRollback(item.getId(), booking.getStart(), booking.getEnd());
+        return booking;
+    }
+
+    private static void reject(BookingBatchResultDto result, HttpStatus status, Exception e) {
+        result.setStatus(status.value());
+        result.setError(e.getMessage());
     }
 
     @Override
@@ -59,81 +168,87 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
-    public List<BookingDto> getAll(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при получении всех бронирований: передан неверный Id пользователя"));
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.searchByBookerIdOrderByStartDesc(userId, pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.searchBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.searchBookingsByBookerIdAndEndIsBeforeOrderByEndDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.searchBookingsByBookerIdAndEndIsAfterOrderByEndDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.searchBookingsByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.searchBookingsByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            default:
-                throw new ValidationException("Unknown state: " + state);
+    public List<BookingListDto> getAll(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException {
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении всех бронирований: передан неверный Id пользователя");
         }
+        BookingFilter filter = new BookingFilter(userId, false, BookingState.valueOf(state), LocalDateTime.now());
+        return bookingRepository.search(filter, PageRequest.of(from / size, size));
     }
 
     @Override
-    public List<BookingDto> getAllBookingByOwner(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при получении всех бронирований пользователя: передан неверный Id пользователя"));
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        List<BookingDto> result = bookingRepository.searchBookingByItemOwnerId(userId, pageable).stream()
-                .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return result;
-            case CURRENT:
-                return bookingRepository.searchBookingsByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.searchBookingsByItemOwnerIdAndEndIsBeforeOrderByEndDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.searchBookingsByItemOwnerIdAndEndIsAfterOrderByEndDesc(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
-            default:
-                throw new ValidationException("Unknown state: " + state);
+    public List<BookingListDto> getAllBookingByOwner(long userId, String state, int from, int size) throws EntityNotFoundException, ValidationException {
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении всех бронирований пользователя: передан неверный Id пользователя");
         }
+        BookingFilter filter = new BookingFilter(userId, true, BookingState.valueOf(state), LocalDateTime.now());
+        return bookingRepository.search(filter, PageRequest.of(from / size, size));
     }
 
     @Override
-    public BookingDto approve(long userId, long bookingId, Boolean approved) throws EntityNotFoundException, ValidationException {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ValidationException("Ошибка подтверждения бронирования: передан неверный Id пользователя"));
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        if (bookingDto.getItem().getOwner().getId() != userId) {
-            throw new EntityNotFoundException("Ошибка подтверждения бронирования: передан запрос на подтверждение бронирования чужой вещи");
+    public BookingPageDto getAllAfter(long userId, String state, String cursor, int size) throws EntityNotFoundException, ValidationException {
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении всех бронирований: передан неверный Id пользователя");
+        }
+        BookingFilter filter = new BookingFilter(userId, false, BookingState.valueOf(state), LocalDateTime.now());
+        return searchAfter(filter, cursor, size);
+    }
+
+    @Override
+    public BookingPageDto getAllBookingByOwnerAfter(long userId, String state, String cursor, int size) throws EntityNotFoundException, ValidationException {
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении всех бронирований пользователя: передан неверный Id пользователя");
         }
-        if (bookingDto.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new ValidationException("Ошибка подтверждения бронирования: бронирование уже подтверждено");
+        BookingFilter filter = new BookingFilter(userId, true, BookingState.valueOf(state), LocalDateTime.now());
+        return searchAfter(filter, cursor, size);
+    }
+
+    private BookingPageDto searchAfter(BookingFilter filter, String cursor, int size) throws ValidationException {
+        List<BookingListDto> bookings = bookingRepository.searchAfter(filter, KeysetCursor.decode(cursor), size);
+        String nextCursor = null;
+        if (bookings.size() == size) {
+            BookingListDto last = bookings.get(bookings.size() - 1);
+            nextCursor = new KeysetCursor(last.getStart(), last.getId()).encode();
         }
+        return new BookingPageDto(bookings, nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public BookingDto approve(long userId, long bookingId, Boolean approved) throws EntityNotFoundException, ValidationException {
         if (approved == null) {
             throw new ValidationException("Ошибка подтверждения бронирования: отсутствует булевое значение для подтверждения бронирования");
-        } else if (approved) {
-            bookingDto.setStatus(BookingStatus.APPROVED);
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateStatusIfWaiting(bookingId, userId, status);
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ValidationException("Ошибка подтверждения бронирования: передан неверный Id пользователя"));
+        if (updated == 0) {
+            if (booking.getItem().getOwner().getId() != userId) {
+                throw new EntityNotFoundException("Ошибка подтверждения бронирования: передан запрос на подтверждение бронирования чужой вещи");
+            }
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                throw new ValidationException("Ошибка подтверждения бронирования: бронирование уже подтверждено");
+            }
+            throw new ValidationException("Ошибка подтверждения бронирования: бронирование уже рассмотрено");
+        }
+        long itemId = booking.getItem().getId();
+        if (status == BookingStatus.REJECTED) {
+            bookingIntervalIndex.releaseAfterCommit(itemId, booking.getStart(), booking.getEnd());
         } else {
-            bookingDto.setStatus(BookingStatus.REJECTED);
+            rejectOverlappingWaiting(itemId, booking);
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingDto)));
+        itemDetailsCache.invalidateAfterCommit(itemId);
+        return BookingMapper.toBookingDto(booking);
     }
-}
 
+    private void rejectOverlappingWaiting(long itemId, Booking approved) {
+        List<Booking> overlapping = bookingRepository.findOverlappingWaitingForUpdate(itemId, approved.getId(),
+                approved.getStart(), approved.getEnd());
+        if (overlapping.isEmpty()) {
+            return;
+        }
+        bookingRepository.rejectWaiting(overlapping.stream().map(Booking::getId).collect(Collectors.toList()));
+        overlapping.forEach(rejected -> bookingIntervalIndex.releaseAfterCommit(itemId, rejected.getStart(), rejected.getEnd()));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Собранная страница вещи в представлении владельца, то есть с последним и следующим бронированием.
+ * {@code validUntil} — ближайшее начало или окончание бронирования вещи, после которого последнее
+ * или следующее бронирование может смениться; {@code null}, если таких бронирований нет.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemDetails {
+    private final Long ownerId;
+    private final ItemInfoDto item;
+    private final LocalDateTime validUntil;
+
+    public ItemInfoDto viewFor(Long userId) {
+        boolean byOwner = ownerId.equals(userId);
+        return new ItemInfoDto(item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                byOwner ? item.getLastBooking() : null,
+                byOwner ? item.getNextBooking() : null,
+                item.getComments() == null ? null : List.copyOf(item.getComments()));
+    }
+
+    int weight() {
+        return 1 + (item.getComments() == null ? 0 : item.getComments().size());
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Кэш страниц вещей. Размер ограничен суммарным весом записей (вещь плюс её отзывы),
+ * вытеснение W-TinyLFU. Записи сбрасываются при изменении вещи, отзывов и бронирований
+ * и истекают не позже ближайшего начала или окончания бронирования вещи, когда последнее
+ * и следующее бронирование сменяются со временем. TTL ограничивает срок жизни остальных записей.
+ */
+@Component
+public class ItemDetailsCache {
+    public static final String CACHE_NAME = "itemDetails";
+
+    private final Cache<Long, ItemDetails> cache;
+
+    public ItemDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${shareit.item-cache.max-weight:10000}") long maxWeight,
+                            @Value("${shareit.item-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long itemId, ItemDetails details) -> details.weight())
+                .expireAfter(new BookingBoundaryExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ItemDetails get(Long itemId, Function<Long, ItemDetails> loader) {
+        return cache.get(itemId, loader);
+    }
+
+    public void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    /**
+     * Сбрасывает запись после фиксации текущей транзакции. Сброс до фиксации позволил бы параллельному
+     * запросу заново закэшировать ещё не изменённое состояние вещи.
+     */
+    public void invalidateAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(itemId);
+            }
+        });
+    }
+
+    private static class BookingBoundaryExpiry implements Expiry<Long, ItemDetails> {
+        private final long ttlNanos;
+
+        BookingBoundaryExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemDetails details, long currentTime) {
+            if (details.getValidUntil() == null) {
+                return ttlNanos;
+            }
+            long untilBoundary = Duration.between(LocalDateTime.now(), details.getValidUntil()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilBoundary));
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemDetails details, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, details, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemDetails details, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.mapper.exception;
+
+public class ConflictException extends Exception {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -16,6 +16,12 @@ public class ExceptionsHandler {
         return ex.getMessage();
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(value = {ConflictException.class})
+    public String conflictHandler(Exception ex) {
+        return ex.getMessage();
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(value = {ValidationException.class})
     public static ResponseEntity<Map<String, String>> validationHandler(Exception ex) {
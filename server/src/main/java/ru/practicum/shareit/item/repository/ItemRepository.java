@@ -4,18 +4,22 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT item FROM Item item " +
-            "WHERE UPPER(item.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            " OR UPPER(item.description) LIKE UPPER(CONCAT('%', ?1, '%'))")
-    List<Item> findByText(String text, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(item.id, item.name, item.description, item.available, request.id) " +
+            "FROM Item item LEFT JOIN item.itemRequest request " +
+            "WHERE item.available = true")
+    List<ItemDto> findAllForSearch();
 
     List<Item> findAllByItemRequestId(Long itemRequestId);
 
+    List<Item> findAllByItemRequestIdIn(Collection<Long> itemRequestIds);
+
     List<Item> findByOwnerId(Long userId, Pageable pageable);
 }
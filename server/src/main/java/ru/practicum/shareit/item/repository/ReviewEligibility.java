@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ReviewEligibility {
+    boolean getItemExists();
+
+    boolean getAuthorExists();
+
+    boolean getHasFinishedBooking();
+}
@@ -1,12 +1,26 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Review;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findAllByItemId(long id);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.author WHERE r.item.id IN ?1")
+    List<Review> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM items i WHERE i.item_id = :itemId) AS \"itemExists\", " +
+            "EXISTS (SELECT 1 FROM users u WHERE u.user_id = :userId) AS \"authorExists\", " +
+            "EXISTS (SELECT 1 FROM bookings b WHERE b.booker_id = :userId AND b.item_id = :itemId " +
+            "AND b.status = 'APPROVED' AND b.end_date < :now) AS \"hasFinishedBooking\"", nativeQuery = true)
+    ReviewEligibility checkEligibility(@Param("userId") long userId, @Param("itemId") long itemId,
+                                       @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей для поиска по названию и описанию.
+ * Слово запроса совпадает со всеми словами индекса, которые с него начинаются;
+ * совпадения в названии и точные совпадения слова ранжируются выше.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ItemDto> documents = new HashMap<>();
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        List<ItemDto> items = itemRepository.findAllForSearch();
+        items.forEach(this::index);
+        log.info("Поисковый индекс вещей заполнен: {} вещей", documents.size());
+    }
+
+    public void index(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+            Map<String, Integer> weights = new HashMap<>();
+            tokenize(item.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+            tokenize(item.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(item.getId(), weight));
+            termsByItem.put(item.getId(), weights.keySet());
+            documents.put(item.getId(), copy(item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(text));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = matches(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + termScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(from)
+                    .limit(size)
+                    .map(entry -> copy(documents.get(entry.getKey())))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Long, Integer> matches(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int factor = entry.getKey().length() == term.length() ? EXACT_MATCH_FACTOR : 1;
+            entry.getValue().forEach((itemId, weight) -> scores.merge(itemId, weight * factor, Integer::sum));
+        }
+        return scores;
+    }
+
+    private void remove(Long itemId) {
+        Set<String> terms = termsByItem.remove(itemId);
+        documents.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> items = postings.get(term);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId());
+    }
+}
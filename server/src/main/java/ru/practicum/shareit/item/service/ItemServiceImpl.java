@@ -4,11 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoId;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetails;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -19,15 +20,19 @@ import ru.practicum.shareit.item.mapper.ReviewMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Review;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ReviewEligibility;
 import ru.practicum.shareit.item.repository.ReviewRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,22 +40,29 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) throws EntityNotFoundException {
         Item item = ItemMapper.toItem(itemDto);
-        User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при создании вещи: передан неверный Id пользователя"));
-        item.setOwner(user);
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при создании вещи: передан неверный Id пользователя");
+        }
+        item.setOwner(userRepository.getReferenceById(userId));
         Long requestId = itemDto.getRequestId();
 
         if (requestId != null) {
             item.setItemRequest(itemRequestRepository.findById(requestId).orElseThrow(() -> new EntityNotFoundException("Неверный идентификатор запроса")));
         }
         itemRepository.save(item);
-        return ItemMapper.toItemDto(item);
+        ItemDto savedItemDto = ItemMapper.toItemDto(item);
+        itemSearchIndex.index(savedItemDto);
+        return savedItemDto;
     }
 
     @Override
@@ -69,22 +81,28 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(item);
-        return ItemMapper.toItemDto(item);
+        itemDetailsCache.invalidate(itemId);
+        ItemDto savedItemDto = ItemMapper.toItemDto(item);
+        itemSearchIndex.index(savedItemDto);
+        return savedItemDto;
     }
 
     @Override
     public ItemInfoDto getItem(Long itemId, Long userId) throws EntityNotFoundException {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new EntityNotFoundException("Ошибка при получении вещи: передан неверный Id пользователя"));
-        ItemInfoDto itemDtoBooking = ItemMapper.toItemDtoWithBooking(item);
-
-        if (item.getOwner().getId().equals(userId)) {
-            createItemDtoWithBooking(itemDtoBooking);
+        ItemDetails itemDetails = itemDetailsCache.get(itemId, this::loadItemDetails);
+        if (itemDetails == null) {
+            throw new EntityNotFoundException("Ошибка при получении вещи: передан неверный Id пользователя");
         }
-        List<Review> reviews = reviewRepository.findAllByItemId(itemId);
-        if (!reviews.isEmpty()) {
-            itemDtoBooking.setComments(reviews.stream().map(ReviewMapper::toReviewDto).collect(Collectors.toList()));
-        }
-        return itemDtoBooking;
+        return itemDetails.viewFor(userId);
+    }
+
+    private ItemDetails loadItemDetails(Long itemId) {
+        return itemRepository.findById(itemId).map(item -> {
+            LocalDateTime validUntil = bookingRepository.findNextBoundary(itemId, LocalDateTime.now());
+            ItemInfoDto itemDtoBooking = ItemMapper.toItemDtoWithBooking(item);
+            fillBookingsAndComments(List.of(itemDtoBooking));
+            return new ItemDetails(item.getOwner().getId(), itemDtoBooking, validUntil);
+        }).orElse(null);
     }
 
     @Override
@@ -93,51 +111,57 @@ public class ItemServiceImpl implements ItemService {
         Pageable pageable = PageRequest.of(page, size);
 
         List<ItemInfoDto> userItemList = itemRepository.findByOwnerId(userId, pageable).stream().map(ItemMapper::toItemDtoWithBooking).collect(Collectors.toList());
-        for (ItemInfoDto itemDtoBooking : userItemList) {
-            createItemDtoWithBooking(itemDtoBooking);
-            List<Review> reviews = reviewRepository.findAllByItemId(itemDtoBooking.getId());
-            if (!reviews.isEmpty()) {
-                itemDtoBooking.setComments(reviews.stream().map(ReviewMapper::toReviewDto).collect(Collectors.toList()));
-            }
-        }
+        fillBookingsAndComments(userItemList);
         userItemList.sort(Comparator.comparing(ItemInfoDto::getId));
         return userItemList;
     }
 
     @Override
     public List<ItemDto> findByText(String text, Integer from, Integer size) {
-        int page = from / size;
-        Pageable pageable = PageRequest.of(page, size);
         if (!text.isBlank()) {
-            return itemRepository.findByText(text, pageable).stream().filter(Item::getAvailable).map(ItemMapper::toItemDto).collect(Collectors.toList());
+            return itemSearchIndex.search(text, from, size);
         }
         return Collections.emptyList();
     }
 
-    private void createItemDtoWithBooking(ItemInfoDto itemDtoBooking) {
-        List<Booking> lastBookings = bookingRepository.searchBookingsByItemIdAndEndIsBeforeOrderByEndDesc(itemDtoBooking.getId(), LocalDateTime.now());
-        if (!lastBookings.isEmpty()) {
-            BookingDtoId lastBooking = BookingMapper.toBookingDtoId(lastBookings.get(0));
-            itemDtoBooking.setLastBooking(lastBooking);
+    private void fillBookingsAndComments(List<ItemInfoDto> items) {
+        if (items.isEmpty()) {
+            return;
         }
-        List<Booking> nextBookings = bookingRepository.searchBookingsByItemIdAndStartIsAfterOrderByStartDesc(itemDtoBooking.getId(), LocalDateTime.now());
-        if (!nextBookings.isEmpty()) {
-            BookingDtoId nextBooking = BookingMapper.toBookingDtoId(nextBookings.get(0));
-            itemDtoBooking.setNextBooking(nextBooking);
+        Map<Long, ItemInfoDto> itemsById = items.stream().collect(Collectors.toMap(ItemInfoDto::getId, Function.identity()));
+        for (ItemBookingView view : bookingRepository.findLastAndNextByItemIds(itemsById.keySet(), LocalDateTime.now())) {
+            ItemInfoDto itemDtoBooking = itemsById.get(view.getItemId());
+            BookingDtoId booking = new BookingDtoId(view.getId(), view.getBookerId());
+            if (ItemBookingView.LAST.equals(view.getKind())) {
+                itemDtoBooking.setLastBooking(booking);
+            } else {
+                itemDtoBooking.setNextBooking(booking);
+            }
         }
+        reviewRepository.findAllByItemIdIn(itemsById.keySet()).stream()
+                .collect(Collectors.groupingBy(review -> review.getItem().getId(),
+                        Collectors.mapping(ReviewMapper::toReviewDto, Collectors.toList())))
+                .forEach((itemId, comments) -> itemsById.get(itemId).setComments(comments));
     }
 
     @Override
+    @Transactional
     public ReviewDto createReview(Long userId, Long itemId, ReviewDto reviewDto) throws EntityNotFoundException, ValidationException {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new EntityNotFoundException("Ошибка при создании отзыва: неверный Id вещи"));
-        User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при создании отзыва: неверный Id пользователя"));
-        bookingRepository.searchBookingByBookerIdAndItemIdAndEndIsBeforeAndStatus(userId, itemId, LocalDateTime.now(),
-                        BookingStatus.APPROVED).stream().filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                        .findAny().orElseThrow(() -> new ValidationException("Ошибка при создании отзыва: передан запрос на создание отзыва при отсуствии бронирования вещи"));
+        ReviewEligibility eligibility = reviewRepository.checkEligibility(userId, itemId, LocalDateTime.now());
+        if (!eligibility.getItemExists()) {
+            throw new EntityNotFoundException("Ошибка при создании отзыва: неверный Id вещи");
+        }
+        if (!eligibility.getAuthorExists()) {
+            throw new EntityNotFoundException("Ошибка при создании отзыва: неверный Id пользователя");
+        }
+        if (!eligibility.getHasFinishedBooking()) {
+            throw new ValidationException("Ошибка при создании отзыва: передан запрос на создание отзыва при отсуствии бронирования вещи");
+        }
         Review review = ReviewMapper.toReview(reviewDto);
-        review.setItem(item);
-        review.setAuthor(user);
+        review.setItem(itemRepository.getReferenceById(itemId));
+        review.setAuthor(userRepository.getReferenceById(userId));
         reviewRepository.save(review);
+        itemDetailsCache.invalidateAfterCommit(itemId);
         return ReviewMapper.toReviewDto(review);
     }
 }
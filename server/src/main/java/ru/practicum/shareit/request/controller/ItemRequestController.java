@@ -2,11 +2,15 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.mapper.exception.ValidationException;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemList;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -33,11 +37,20 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoWithItemList> getAllWithPageable(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                               @RequestParam(defaultValue = "0") Integer from,
-                                                               @RequestParam(defaultValue = "20") Integer size) throws EntityNotFoundException {
+    public ResponseEntity<List<ItemRequestDtoWithItemList>> getAllWithPageable(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                               @RequestParam(defaultValue = "0") Integer from,
+                                                                               @RequestParam(defaultValue = "20") Integer size,
+                                                                               @RequestParam(required = false) String cursor) throws EntityNotFoundException, ValidationException {
         log.info("Выводим все запрос с пагинацией...");
-        return itemRequestService.getAllWithPageable(userId, from, size);
+        if (cursor != null) {
+            ItemRequestPageDto page = itemRequestService.getAllAfter(userId, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(KeysetCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getRequests());
+        }
+        return ResponseEntity.ok(itemRequestService.getAllWithPageable(userId, from, size));
     }
 
     @GetMapping("/{requestId}")
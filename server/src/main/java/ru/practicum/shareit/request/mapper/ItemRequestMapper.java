@@ -12,6 +12,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,11 +29,20 @@ public class ItemRequestMapper {
     }
 
     public ItemRequestDtoWithItemList toItemRequestDtoWithItems(ItemRequest itemRequest) {
-        ItemRequestDtoWithItemList itemRequestDtoWithItems = new ItemRequestDtoWithItemList(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(), new ArrayList<>());
-        List<ItemDto> items = itemRepository.findAllByItemRequestId(itemRequestDtoWithItems.getId()).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
-        if (!items.isEmpty()) {
-            itemRequestDtoWithItems.setItems(items);
+        return toItemRequestDtosWithItems(List.of(itemRequest)).get(0);
+    }
+
+    public List<ItemRequestDtoWithItemList> toItemRequestDtosWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
         }
-        return itemRequestDtoWithItems;
+        List<Long> itemRequestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findAllByItemRequestIdIn(itemRequestIds).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        return itemRequests.stream()
+                .map(itemRequest -> new ItemRequestDtoWithItemList(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(),
+                        itemsByRequestId.getOrDefault(itemRequest.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
     }
 }
@@ -1,13 +1,28 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAll();
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long userId);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> ?1 ORDER BY r.created, r.id")
+    List<ItemRequest> findAllByRequesterIdNot(long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> ?1 " +
+            "AND (r.created > ?2 OR (r.created = ?2 AND r.id > ?3)) ORDER BY r.created, r.id")
+    List<ItemRequest> findAllByRequesterIdNotAfter(long userId, LocalDateTime created, long id, Pageable pageable);
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.mapper.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemList;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 
 import java.util.List;
 
@@ -13,5 +15,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoWithItemList> getAllWithPageable(Long userId, Integer from, Integer size) throws EntityNotFoundException;
 
+    ItemRequestPageDto getAllAfter(Long userId, String cursor, Integer size) throws EntityNotFoundException, ValidationException;
+
     ItemRequestDtoWithItemList getItemRequest(Long userId, Long itemRequestId) throws EntityNotFoundException;
 }
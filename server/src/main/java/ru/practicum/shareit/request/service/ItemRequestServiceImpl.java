@@ -3,19 +3,21 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.mapper.exception.ValidationException;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemList;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +25,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
 
     @Override
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) throws EntityNotFoundException {
@@ -34,23 +37,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDtoWithItemList> getAll(Long userId) throws EntityNotFoundException {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при получении запросов: передан неверный id пользователя"));
-        return itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId).stream().map(itemRequestMapper::toItemRequestDtoWithItems).collect(Collectors.toList());
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении запросов: передан неверный id пользователя");
+        }
+        return itemRequestMapper.toItemRequestDtosWithItems(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId));
     }
 
     @Override
     public ItemRequestDtoWithItemList getItemRequest(Long userId, Long itemRequestId) throws EntityNotFoundException {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка получении запроса: передан неверный id пользователя"));
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка получении запроса: передан неверный id пользователя");
+        }
         ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId).orElseThrow(() -> new EntityNotFoundException("Ошибка при создании запроса: передан неверный id запроса"));
         return itemRequestMapper.toItemRequestDtoWithItems(itemRequest);
     }
 
     @Override
     public List<ItemRequestDtoWithItemList> getAllWithPageable(Long userId, Integer from, Integer size) throws EntityNotFoundException {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("created"));
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Ошибка при получении запроса с пагинацией: передан неверный id пользователя"));
-        return itemRequestRepository.findAll(pageable).stream()
-                .filter(itemRequest -> !itemRequest.getRequester().getId().equals(userId)).map(itemRequestMapper::toItemRequestDtoWithItems).collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(from / size, size);
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении запроса с пагинацией: передан неверный id пользователя");
+        }
+        return itemRequestMapper.toItemRequestDtosWithItems(itemRequestRepository.findAllByRequesterIdNot(userId, pageable));
+    }
+
+    @Override
+    public ItemRequestPageDto getAllAfter(Long userId, String cursor, Integer size) throws EntityNotFoundException, ValidationException {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (!userExistenceService.exists(userId)) {
+            throw new EntityNotFoundException("Ошибка при получении запроса с пагинацией: передан неверный id пользователя");
+        }
+        Pageable pageable = PageRequest.of(0, size);
+        List<ItemRequest> itemRequests = after == null
+                ? itemRequestRepository.findAllByRequesterIdNot(userId, pageable)
+                : itemRequestRepository.findAllByRequesterIdNotAfter(userId, after.getTimestamp(), after.getId(), pageable);
+        String nextCursor = null;
+        if (itemRequests.size() == size) {
+            ItemRequest last = itemRequests.get(itemRequests.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        return new ItemRequestPageDto(itemRequestMapper.toItemRequestDtosWithItems(itemRequests), nextCursor);
     }
 }
 
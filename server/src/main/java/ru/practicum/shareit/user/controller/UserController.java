@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -14,7 +20,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto create(@RequestBody UserDto userDto) {
@@ -41,8 +50,26 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
+    public List<UserDto> getAll(@RequestParam(required = false) Integer from,
+                                @RequestParam(required = false) Integer size) {
         log.info("Выводим всех пользователей...");
-        return userService.getAll();
+        if (from == null && size == null) {
+            return userService.getAll();
+        }
+        return userService.getAll(from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Выгружаем всех пользователей потоком...");
+        StreamingResponseBody body = outputStream -> userService.streamAll(userDto -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(userDto));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
\ No newline at end of file
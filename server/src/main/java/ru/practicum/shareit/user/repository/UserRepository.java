@@ -1,8 +1,16 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.util.List;
 
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
+
+    List<User> findAllByOrderById(Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+    void streamAll(Consumer<UserDto> action);
+}
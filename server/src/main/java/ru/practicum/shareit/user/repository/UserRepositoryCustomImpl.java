@@ -0,0 +1,34 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.sql.PreparedStatement;
+import java.util.function.Consumer;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final String SELECT_USERS = "SELECT user_id, user_name, email FROM users ORDER BY user_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${shareit.users.stream-fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Строки читаются из базы порциями по {@code fetchSize} и передаются в {@code action} по одной,
+     * минуя контекст персистентности. PostgreSQL читает порциями только внутри транзакции,
+     * поэтому метод нужно вызывать из транзакционного кода.
+     */
+    @Override
+    public void streamAll(Consumer<UserDto> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_USERS);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(new UserDto(resultSet.getLong("user_id"),
+                resultSet.getString("user_name"), resultSet.getString("email"))));
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Проверка существования пользователя без загрузки его из базы.
+ * Пользователей создаёт только этот экземпляр сервера, а id растут, поэтому известные id хранятся
+ * в битовой карте. Для id не больше максимального известного карта считается точной, и несуществующий id
+ * отклоняется без запроса к базе; более новые id проверяются через {@code existsById}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExistenceService {
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet knownIds = new BitSet();
+    private long maxKnownId;
+
+    @PostConstruct
+    public void warmUp() {
+        List<Long> ids = userRepository.findAllIds();
+        ids.forEach(this::add);
+        log.info("Карта пользователей заполнена: {} пользователей", ids.size());
+    }
+
+    public boolean exists(long userId) {
+        if (userId <= 0 || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (knownIds.get((int) userId)) {
+                return true;
+            }
+            if (userId <= maxKnownId) {
+                return false;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    public void add(long userId) {
+        if (userId <= 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId);
+            maxKnownId = Math.max(maxKnownId, userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        if (userId <= 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.clear((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto create(UserDto userDto);
@@ -12,6 +13,10 @@ public interface UserService {
 
     List<UserDto> getAll();
 
+    List<UserDto> getAll(Integer from, Integer size);
+
+    void streamAll(Consumer<UserDto> action);
+
     void delete(Long userId) throws EntityNotFoundException;
 
     UserDto getUser(Long userId) throws EntityNotFoundException;
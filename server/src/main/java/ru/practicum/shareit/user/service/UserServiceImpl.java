@@ -2,7 +2,9 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -10,6 +12,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,10 +21,12 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
 
     @Override
     public UserDto create(UserDto userDto) {
         User user = userRepository.save(UserMapper.toUser(userDto));
+        userExistenceService.add(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -44,10 +49,24 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getAll(Integer from, Integer size) {
+        return userRepository.findAllByOrderById(PageRequest.of(from / size, size)).stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> action) {
+        userRepository.streamAll(action);
+    }
+
     @Override
     public void delete(Long userId) throws EntityNotFoundException {
         getUser(userId);
         userRepository.deleteById(userId);
+        userExistenceService.remove(userId);
     }
 
     @Override
@@ -1,8 +1,3 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS reviews;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
 CREATE TABLE IF NOT EXISTS users
 (
     user_id   BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL PRIMARY KEY,
@@ -54,4 +49,4 @@ CREATE TABLE IF NOT EXISTS reviews
     created     timestamp WITHOUT TIME ZONE         NOT NULL,
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (item_id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (user_id)
-);
\ No newline at end of file
+);
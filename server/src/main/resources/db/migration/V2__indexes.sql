@@ -0,0 +1,16 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_booker ON bookings (status, booker_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status ON bookings (booker_id, item_id, status);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_item ON reviews (item_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_author ON reviews (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created, request_id);
@@ -17,8 +17,10 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -101,6 +103,26 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).create(bookingDtoSimple, bookerId);
     }
 
+    @Test
+    void createBatch() throws Exception {
+        Long bookerId = booking.getBooker().getId();
+        List<BookingDtoShort> bookingDtoShorts = List.of(toBookingDtoShort(booking), toBookingDtoShort(booking));
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(0, 200, BookingMapper.toBookingListDto(booking), null),
+                new BookingBatchResultDto(1, 409, null, "Ошибка при создании бронирования: вещь уже забронирована на это время"));
+        when(bookingService.createBatch(bookingDtoShorts, bookerId)).thenReturn(results);
+        mockMvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(bookingDtoShorts))
+                        .header("X-Sharer-User-Id", bookerId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"index\": 0, \"status\": 200, \"booking\": {\"id\": 1}}," +
+                        " {\"index\": 1, \"status\": 409, \"booking\": null}]"));
+        verify(bookingService, times(1)).createBatch(bookingDtoShorts, bookerId);
+    }
+
     @Test
     void getBooking() throws Exception {
         Long bookerId = booking.getBooker().getId();
@@ -121,36 +143,31 @@ public class BookingControllerTest {
 
     @Test
     public void getAllBookings() throws Exception {
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
-        when(bookingService.getAll(bookingDto.getBooker().getId(), "ALL", 0, 20))
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
+        when(bookingService.getAll(booking.getBooker().getId(), "ALL", 0, 20))
                 .thenReturn(bookingDtoList);
         mockMvc.perform(get("/bookings")
-                        .header("X-Sharer-User-Id", bookingDto.getBooker().getId())
+                        .header("X-Sharer-User-Id", booking.getBooker().getId())
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1," +
-                        " \"item\": {\"id\": 1,\"name\": \"testItem\"," +
-                        " \"description\": \"testDescription\", \"available\": true," +
-                        " \"owner\": {\"id\": 1,\"name\": \"testOwner\",\"email\": \"testOwner@test.ru\"}," +
-                        " \"itemRequest\": null}," +
-                        " \"booker\": {\"id\": 2,\"name\": \"testBooker\",\"email\": \"testBooker@test.ru\"}}]"));
+                        " \"item\": {\"id\": 1,\"name\": \"testItem\"}," +
+                        " \"booker\": {\"id\": 2}}]"));
         verify(bookingService, times(1))
-                .getAll(bookingDto.getBooker().getId(), "ALL", 0, 20);
+                .getAll(booking.getBooker().getId(), "ALL", 0, 20);
     }
 
     @Test
     public void getAllBookingsWhereFromIsMinus() throws Exception {
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
-        when(bookingService.getAll(bookingDto.getBooker().getId(), "ALL", 0, 20))
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
+        when(bookingService.getAll(booking.getBooker().getId(), "ALL", 0, 20))
                 .thenReturn(bookingDtoList);
         assertThatThrownBy(() -> mockMvc.perform(get("/bookings")
-                        .header("X-Sharer-User-Id", bookingDto.getBooker().getId())
+                        .header("X-Sharer-User-Id", booking.getBooker().getId())
                         .param("state", "ALL")
                         .param("from", "-1")
                         .param("size", "20"))
@@ -161,22 +178,18 @@ public class BookingControllerTest {
     @Test
     void getAllUserBookings() throws Exception {
         Long itemUserId = booking.getItem().getOwner().getId();
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
         when(bookingService.getAllBookingByOwner(itemUserId, "ALL", 0, 20)).thenReturn(bookingDtoList);
         mockMvc.perform(get("/bookings/owner")
-                        .header("X-Sharer-User-Id", bookingDto.getItem().getOwner().getId())
+                        .header("X-Sharer-User-Id", itemUserId)
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1," +
-                        " \"item\": {\"id\": 1,\"name\": \"testItem\"," +
-                        " \"description\": \"testDescription\", \"available\": true," +
-                        " \"owner\": {\"id\": 1,\"name\": \"testOwner\",\"email\": \"testOwner@test.ru\"}," +
-                        " \"itemRequest\": null}," +
-                        " \"booker\": {\"id\": 2,\"name\": \"testBooker\",\"email\": \"testBooker@test.ru\"}}]"));
+                        " \"item\": {\"id\": 1,\"name\": \"testItem\"}," +
+                        " \"booker\": {\"id\": 2}}]"));
         verify(bookingService, times(1)).getAllBookingByOwner(itemUserId, "ALL", 0,
                 20);
     }
@@ -184,12 +197,11 @@ public class BookingControllerTest {
     @Test
     void getAllUserBookingsWhereFromIsMinus() throws Exception {
         Long itemUserId = booking.getItem().getOwner().getId();
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
         when(bookingService.getAllBookingByOwner(itemUserId, "ALL", 0, 20)).thenReturn(bookingDtoList);
         assertThatThrownBy(() -> mockMvc.perform(get("/bookings/owner")
-                        .header("X-Sharer-User-Id", bookingDto.getItem().getOwner().getId())
+                        .header("X-Sharer-User-Id", itemUserId)
                         .param("state", "ALL")
                         .param("from", "-1")
                         .param("size", "20"))
@@ -200,22 +212,18 @@ public class BookingControllerTest {
     @Test
     void getAllUserCurrentBookings() throws Exception {
         Long itemUserId = booking.getItem().getOwner().getId();
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
         when(bookingService.getAllBookingByOwner(itemUserId, "CURRENT", 0, 20)).thenReturn(bookingDtoList);
         mockMvc.perform(get("/bookings/owner")
-                        .header("X-Sharer-User-Id", bookingDto.getItem().getOwner().getId())
+                        .header("X-Sharer-User-Id", itemUserId)
                         .param("state", "CURRENT")
                         .param("from", "0")
                         .param("size", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1," +
-                        " \"item\": {\"id\": 1,\"name\": \"testItem\"," +
-                        " \"description\": \"testDescription\", \"available\": true," +
-                        " \"owner\": {\"id\": 1,\"name\": \"testOwner\",\"email\": \"testOwner@test.ru\"}," +
-                        " \"itemRequest\": null}," +
-                        " \"booker\": {\"id\": 2,\"name\": \"testBooker\",\"email\": \"testBooker@test.ru\"}}]"));
+                        " \"item\": {\"id\": 1,\"name\": \"testItem\"}," +
+                        " \"booker\": {\"id\": 2}}]"));
         verify(bookingService, times(1)).getAllBookingByOwner(itemUserId, "CURRENT", 0,
                 20);
     }
@@ -223,22 +231,18 @@ public class BookingControllerTest {
     @Test
     void getAllUserPastBookings() throws Exception {
         Long itemUserId = booking.getItem().getOwner().getId();
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
         when(bookingService.getAllBookingByOwner(itemUserId, "PAST", 0, 20)).thenReturn(bookingDtoList);
         mockMvc.perform(get("/bookings/owner")
-                        .header("X-Sharer-User-Id", bookingDto.getItem().getOwner().getId())
+                        .header("X-Sharer-User-Id", itemUserId)
                         .param("state", "PAST")
                         .param("from", "0")
                         .param("size", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1," +
-                        " \"item\": {\"id\": 1,\"name\": \"testItem\"," +
-                        " \"description\": \"testDescription\", \"available\": true," +
-                        " \"owner\": {\"id\": 1,\"name\": \"testOwner\",\"email\": \"testOwner@test.ru\"}," +
-                        " \"itemRequest\": null}," +
-                        " \"booker\": {\"id\": 2,\"name\": \"testBooker\",\"email\": \"testBooker@test.ru\"}}]"));
+                        " \"item\": {\"id\": 1,\"name\": \"testItem\"}," +
+                        " \"booker\": {\"id\": 2}}]"));
         verify(bookingService, times(1)).getAllBookingByOwner(itemUserId, "PAST", 0,
                 20);
     }
@@ -246,22 +250,18 @@ public class BookingControllerTest {
     @Test
     void getAllUserFutureBookings() throws Exception {
         Long itemUserId = booking.getItem().getOwner().getId();
-        List<BookingDto> bookingDtoList = new ArrayList<>();
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        bookingDtoList.add(bookingDto);
+        List<BookingListDto> bookingDtoList = new ArrayList<>();
+        bookingDtoList.add(BookingMapper.toBookingListDto(booking));
         when(bookingService.getAllBookingByOwner(itemUserId, "FUTURE", 0, 20)).thenReturn(bookingDtoList);
         mockMvc.perform(get("/bookings/owner")
-                        .header("X-Sharer-User-Id", bookingDto.getItem().getOwner().getId())
+                        .header("X-Sharer-User-Id", itemUserId)
                         .param("state", "FUTURE")
                         .param("from", "0")
                         .param("size", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1," +
-                        " \"item\": {\"id\": 1,\"name\": \"testItem\"," +
-                        " \"description\": \"testDescription\", \"available\": true," +
-                        " \"owner\": {\"id\": 1,\"name\": \"testOwner\",\"email\": \"testOwner@test.ru\"}," +
-                        " \"itemRequest\": null}," +
-                        " \"booker\": {\"id\": 2,\"name\": \"testBooker\",\"email\": \"testBooker@test.ru\"}}]"));
+                        " \"item\": {\"id\": 1,\"name\": \"testItem\"}," +
+                        " \"booker\": {\"id\": 2}}]"));
         verify(bookingService, times(1)).getAllBookingByOwner(itemUserId, "FUTURE", 0,
                 20);
     }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.bookingTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookingIntervalIndexTest {
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    public void reserveFreeInterval() {
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start, start.plusDays(1)));
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusDays(1), start.plusDays(2)));
+        assertTrue(bookingIntervalIndex.tryReserve(2L, start, start.plusDays(1)));
+    }
+
+    @Test
+    public void reserveOverlappingInterval() {
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start, start.plusDays(2)));
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start.minusDays(1), start.plusHours(1)));
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start.plusHours(1), start.plusHours(2)));
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start.plusDays(1), start.plusDays(3)));
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start, start.plusDays(2)));
+    }
+
+    @Test
+    public void reserveAfterRelease() {
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start, start.plusDays(1)));
+        bookingIntervalIndex.release(1L, start, start.plusDays(1));
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    public void releaseWithDatabasePrecision() {
+        LocalDateTime precise = start.withNano(123_456_789);
+        assertTrue(bookingIntervalIndex.tryReserve(1L, precise, precise.plusDays(1)));
+        bookingIntervalIndex.release(1L, precise.withNano(123_456_000), precise.plusDays(1).withNano(123_456_000));
+        assertTrue(bookingIntervalIndex.tryReserve(1L, precise.plusHours(1), precise.plusHours(2)));
+    }
+
+    @Test
+    public void warmUpKeepsOverlappingIntervals() {
+        when(bookingRepository.findActiveIntervals(any(), any())).thenReturn(List.of(
+                new BookingDtoShort(1L, start, start.plusDays(2), 1L),
+                new BookingDtoShort(2L, start.plusDays(1), start.plusDays(3), 1L)));
+        bookingIntervalIndex.warmUp();
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start.plusDays(2), start.plusDays(4)));
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusDays(3), start.plusDays(4)));
+    }
+
+    @Test
+    public void releaseOneOfOverlappingIntervals() {
+        when(bookingRepository.findActiveIntervals(any(), any())).thenReturn(List.of(
+                new BookingDtoShort(1L, start, start.plusDays(2), 1L),
+                new BookingDtoShort(2L, start.plusDays(1), start.plusDays(3), 1L)));
+        bookingIntervalIndex.warmUp();
+        bookingIntervalIndex.release(1L, start.plusDays(1), start.plusDays(3));
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusDays(2), start.plusDays(4)));
+        assertFalse(bookingIntervalIndex.tryReserve(1L, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    public void releaseOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(bookingIntervalIndex.tryReserve(1L, start, start.plusDays(1)));
+            bookingIntervalIndex.releaseOnRollback(1L, start, start.plusDays(1));
+            assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusDays(2), start.plusDays(3)));
+            bookingIntervalIndex.releaseOnRollback(1L, start.plusDays(2), start.plusDays(3));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(bookingIntervalIndex.tryReserve(1L, start.plusHours(1), start.plusDays(3)));
+    }
+}
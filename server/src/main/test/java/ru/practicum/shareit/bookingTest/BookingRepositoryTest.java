@@ -4,9 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -18,6 +23,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -72,19 +79,6 @@ public class BookingRepositoryTest {
         assertEquals(booking.getStatus(), bookings.get(0).getStatus());
     }
 
-    @Test
-    void getBookingByBookerIdAndItemIdAndEndIsBeforeAndStatusTest() {
-        final List<Booking> bookings = bookingRepository
-                .searchBookingByBookerIdAndItemIdAndEndIsBeforeAndStatus(booker.getId(), item.getId(),
-                        LocalDateTime.now(), APPROVED);
-        assertEquals(1, bookings.size());
-        assertEquals(booking.getId(), bookings.get(0).getId());
-        assertEquals(booking.getStart(), bookings.get(0).getStart());
-        assertEquals(booking.getEnd(), bookings.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookings.get(0).getBooker().getName());
-        assertEquals(booking.getStatus(), bookings.get(0).getStatus());
-    }
-
     @Test
     void startBookingIsAfterTest() {
         final Booking booking1 = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
@@ -118,6 +112,26 @@ public class BookingRepositoryTest {
         assertEquals(0, bookings.size());
     }
 
+    @Test
+    void lastAndNextByItemIdsTest() {
+        final Booking next = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(10), item, booker, APPROVED));
+        final Item otherItem = itemRepository.save(new Item(2L, "item2", "description2", true, owner,
+                null));
+        final List<ItemBookingView> views = bookingRepository.findLastAndNextByItemIds(
+                List.of(item.getId(), otherItem.getId()), LocalDateTime.now());
+        assertEquals(2, views.size());
+        for (ItemBookingView view : views) {
+            assertEquals(item.getId(), view.getItemId());
+            assertEquals(booker.getId(), view.getBookerId());
+            if (ItemBookingView.LAST.equals(view.getKind())) {
+                assertEquals(booking.getId(), view.getId());
+            } else {
+                assertEquals(next.getId(), view.getId());
+            }
+        }
+    }
+
     @Test
     void startIsAfterOrderByStartDescTest() {
         final Booking booking1 = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
@@ -207,4 +221,77 @@ public class BookingRepositoryTest {
         assertEquals(booking.getBooker().getName(), bookings.get(0).getBooker().getName());
         assertEquals(booking.getStatus(), bookings.get(0).getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchByOwnerAndStateTest() {
+        final Booking futureBooking = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(10), item, booker, WAITING));
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingListDto> bookings = bookingRepository.search(
+                new BookingFilter(owner.getId(), true, BookingState.PAST, now), PageRequest.of(0, 20));
+        assertEquals(1, bookings.size());
+        assertEquals(booking.getId(), bookings.get(0).getId());
+        assertEquals(item.getName(), bookings.get(0).getItem().getName());
+        assertEquals(booker.getId(), bookings.get(0).getBooker().getId());
+        bookings = bookingRepository.search(
+                new BookingFilter(owner.getId(), true, BookingState.WAITING, now), PageRequest.of(0, 20));
+        assertEquals(1, bookings.size());
+        assertEquals(futureBooking.getId(), bookings.get(0).getId());
+        bookings = bookingRepository.search(
+                new BookingFilter(booker.getId(), true, BookingState.ALL, now), PageRequest.of(0, 20));
+        assertEquals(0, bookings.size());
+    }
+
+    @Test
+    void searchByBookerOrdersByStartTest() {
+        final Booking futureBooking = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(10), item, booker, APPROVED));
+        List<BookingListDto> bookings = bookingRepository.search(
+                new BookingFilter(booker.getId(), false, BookingState.ALL, LocalDateTime.now()), PageRequest.of(0, 1));
+        assertEquals(1, bookings.size());
+        assertEquals(futureBooking.getId(), bookings.get(0).getId());
+        bookings = bookingRepository.search(
+                new BookingFilter(booker.getId(), false, BookingState.ALL, LocalDateTime.now()), PageRequest.of(1, 1));
+        assertEquals(booking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void updateStatusIfWaitingTest() {
+        final Booking waiting = bookingRepository.save(new Booking(2L, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(10), item, booker, WAITING));
+        assertEquals(0, bookingRepository.updateStatusIfWaiting(waiting.getId(), booker.getId(), APPROVED));
+        assertEquals(1, bookingRepository.updateStatusIfWaiting(waiting.getId(), owner.getId(), APPROVED));
+        assertEquals(0, bookingRepository.updateStatusIfWaiting(waiting.getId(), owner.getId(), REJECTED));
+        assertEquals(APPROVED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectOverlappingWaitingTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        final Booking approved = bookingRepository.save(new Booking(null, start, start.plusDays(5), item, booker,
+                APPROVED));
+        final Booking overlapping = bookingRepository.save(new Booking(null, start.plusDays(1), start.plusDays(7), item,
+                booker, WAITING));
+        final Booking later = bookingRepository.save(new Booking(null, start.plusDays(5), start.plusDays(8), item,
+                booker, WAITING));
+        final List<Booking> found = bookingRepository.findOverlappingWaitingForUpdate(item.getId(), approved.getId(),
+                approved.getStart(), approved.getEnd());
+        assertEquals(1, found.size());
+        assertEquals(overlapping.getId(), found.get(0).getId());
+        assertEquals(1, bookingRepository.rejectWaiting(List.of(overlapping.getId())));
+        assertEquals(REJECTED, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+        assertEquals(WAITING, bookingRepository.findById(later.getId()).orElseThrow().getStatus());
+        assertEquals(APPROVED, bookingRepository.findById(approved.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void saveAllAssignsSequentialIdsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                new Booking(null, start, start.plusDays(1), item, booker, WAITING),
+                new Booking(null, start.plusDays(2), start.plusDays(3), item, booker, WAITING)));
+        assertEquals(booking.getId() + 1, bookings.get(0).getId());
+        assertEquals(booking.getId() + 2, bookings.get(1).getId());
+        assertEquals(start.plusDays(2), bookingRepository.findById(bookings.get(1).getId()).orElseThrow().getStart());
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.bookingTest;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,21 +8,32 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.mapper.exception.ConflictException;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -40,6 +52,8 @@ public class BookingServiceTest {
     private BookingRepository bookingRepository;
     private ItemRepository itemRepository;
     private UserRepository userRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private UserExistenceService userExistenceService;
     private Booking booking;
 
 
@@ -48,8 +62,14 @@ public class BookingServiceTest {
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        userExistenceService = new UserExistenceService(userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                userExistenceService, bookingIntervalIndex,
+                new ItemDetailsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
         booking = createBookingExample();
+        userExistenceService.add(booking.getItem().getOwner().getId());
+        userExistenceService.add(booking.getBooker().getId());
     }
 
     private Booking createBookingExample() {
@@ -67,7 +87,7 @@ public class BookingServiceTest {
     }
 
     @Test
-    public void createValidBooking() throws ValidationException, EntityNotFoundException {
+    public void createValidBooking() throws ValidationException, EntityNotFoundException, ConflictException {
         Long bookerId = booking.getBooker().getId();
         User booker = booking.getBooker();
         Long itemId = booking.getItem().getId();
@@ -84,6 +104,23 @@ public class BookingServiceTest {
         verify(bookingRepository, times(1)).save(any(Booking.class));
     }
 
+    @Test
+    public void createOverlappingBooking() throws ValidationException, EntityNotFoundException, ConflictException {
+        Long bookerId = booking.getBooker().getId();
+        User booker = booking.getBooker();
+        Long itemId = booking.getItem().getId();
+        Item item = booking.getItem();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        bookingService.create(toBookingDtoShort(booking), bookerId);
+        BookingDtoShort overlapping = new BookingDtoShort(null, booking.getStart().plusHours(1),
+                booking.getEnd().plusDays(1), itemId);
+        Throwable throwable = assertThrows(ConflictException.class, () -> bookingService.create(overlapping, bookerId));
+        assertEquals("Ошибка при создании бронирования: вещь уже забронирована на это время", throwable.getMessage());
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
     @Test
     public void createBookingWithIncorrectTime() {
         Long bookerId = booking.getBooker().getId();
@@ -146,116 +183,144 @@ public class BookingServiceTest {
     }
 
 
+    @Test
+    public void createBatchReportsPerEntryResults() throws ValidationException, EntityNotFoundException {
+        User booker = booking.getBooker();
+        Item item = booking.getItem();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item));
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<BookingBatchResultDto> results = bookingService.createBatch(List.of(
+                new BookingDtoShort(null, start, start.plusDays(2), item.getId()),
+                new BookingDtoShort(null, start.plusDays(1), start.plusDays(3), item.getId()),
+                new BookingDtoShort(null, start, start.plusDays(2), 99L),
+                new BookingDtoShort(null, start.plusDays(2), start, item.getId())), booker.getId());
+        assertEquals(4, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(item.getName(), results.get(0).getBooking().getItem().getName());
+        assertEquals(409, results.get(1).getStatus());
+        assertNull(results.get(1).getBooking());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(400, results.get(3).getStatus());
+        verify(itemRepository, times(1)).findAllById(any());
+        verify(bookingRepository, times(1)).saveAll(argThat((List<Booking> bookings) -> bookings.size() == 1));
+    }
+
+    @Test
+    public void createEmptyBatch() {
+        assertThrows(ValidationException.class, () -> bookingService.createBatch(List.of(), 2L));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
     @Test
     public void getAllBookings() throws ValidationException, EntityNotFoundException {
         Long bookerId = booking.getBooker().getId();
-        User booker = booking.getBooker();
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchByBookerIdOrderByStartDesc(bookerId, PageRequest.of(0, 20, Sort.by("start")
-                .descending()))).thenReturn(Collections.singletonList(booking));
-        final List<BookingDto> bookingDtoList = bookingService.getAll(bookerId, "ALL", 0, 20);
+        when(bookingRepository.search(filterOf(bookerId, false, BookingState.ALL), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        final List<BookingListDto> bookingDtoList = bookingService.getAll(bookerId, "ALL", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
         assertEquals(booking.getStatus(), bookingDtoList.get(0).getStatus());
-        verify(bookingRepository, times(1)).searchByBookerIdOrderByStartDesc(bookerId,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        verify(bookingRepository, times(1)).search(filterOf(bookerId, false, BookingState.ALL), eq(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    public void getAllBookingsByCursor() throws ValidationException, EntityNotFoundException {
+        Long bookerId = booking.getBooker().getId();
+        when(bookingRepository.searchAfter(any(), any(), anyInt()))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        BookingPageDto page = bookingService.getAllAfter(bookerId, "ALL", "", 1);
+        assertEquals(1, page.getBookings().size());
+        assertEquals(booking.getId(), page.getBookings().get(0).getId());
+        KeysetCursor nextCursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(booking.getStart(), nextCursor.getTimestamp());
+        assertEquals(booking.getId(), nextCursor.getId());
+        page = bookingService.getAllAfter(bookerId, "ALL", page.getNextCursor(), 20);
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getAllBookingsByInvalidCursor() {
+        Long bookerId = booking.getBooker().getId();
+        assertThrows(ValidationException.class, () -> bookingService.getAllAfter(bookerId, "ALL", "not-a-cursor", 20));
     }
 
     @Test
     public void getAllBookingWaiting() throws ValidationException, EntityNotFoundException {
         Long bookerId = booking.getBooker().getId();
-        User booker = booking.getBooker();
         booking.setStatus(WAITING);
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchBookingsByBookerIdAndStatus(bookerId, WAITING,
-                PageRequest.of(0, 20, Sort.by("start").descending())))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDto> bookingDtoList = bookingService.getAll(bookerId, "WAITING", 0, 20);
+        when(bookingRepository.search(filterOf(bookerId, false, BookingState.WAITING), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        List<BookingListDto> bookingDtoList = bookingService.getAll(bookerId, "WAITING", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
-        verify(bookingRepository, times(1)).searchBookingsByBookerIdAndStatus(bookerId, WAITING,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
+        verify(bookingRepository, times(1)).search(filterOf(bookerId, false, BookingState.WAITING), eq(PageRequest.of(0, 20)));
     }
 
     @Test
     public void getAllBookingsRejected() throws ValidationException, EntityNotFoundException {
         Long bookerId = booking.getBooker().getId();
-        User booker = booking.getBooker();
         booking.setStatus(REJECTED);
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchBookingsByBookerIdAndStatus(bookerId, REJECTED,
-                PageRequest.of(0, 20, Sort.by("start").descending())))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDto> bookingDtoList = bookingService.getAll(bookerId, "REJECTED", 0, 20);
+        when(bookingRepository.search(filterOf(bookerId, false, BookingState.REJECTED), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        List<BookingListDto> bookingDtoList = bookingService.getAll(bookerId, "REJECTED", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
-        verify(bookingRepository, times(1)).searchBookingsByBookerIdAndStatus(bookerId, REJECTED,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
+        verify(bookingRepository, times(1)).search(filterOf(bookerId, false, BookingState.REJECTED), eq(PageRequest.of(0, 20)));
     }
 
     @Test
     public void getAllUserBookings() throws ValidationException, EntityNotFoundException {
-        User booker = booking.getBooker();
         Long itemUserId = booking.getItem().getOwner().getId();
-        when(userRepository.findById(itemUserId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchBookingByItemOwnerId(itemUserId,
-                PageRequest.of(0, 20, Sort.by("start").descending())))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "ALL", 0, 20);
+        when(bookingRepository.search(filterOf(itemUserId, true, BookingState.ALL), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        List<BookingListDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "ALL", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
-        verify(bookingRepository, times(1)).searchBookingByItemOwnerId(itemUserId,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
+        verify(bookingRepository, times(1)).search(filterOf(itemUserId, true, BookingState.ALL), eq(PageRequest.of(0, 20)));
     }
 
     @Test
     public void getAllUserBookingsWaiting() throws ValidationException, EntityNotFoundException {
-        User booker = booking.getBooker();
         Long itemUserId = booking.getItem().getOwner().getId();
         booking.setStatus(WAITING);
-        when(userRepository.findById(itemUserId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(itemUserId, WAITING,
-                PageRequest.of(0, 20, Sort.by("start").descending())))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "WAITING", 0, 20);
+        when(bookingRepository.search(filterOf(itemUserId, true, BookingState.WAITING), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        List<BookingListDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "WAITING", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
-        verify(bookingRepository, times(1)).searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(itemUserId, WAITING,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
+        verify(bookingRepository, times(1)).search(filterOf(itemUserId, true, BookingState.WAITING), eq(PageRequest.of(0, 20)));
     }
 
     @Test
     public void getAllUserBookingsRejected() throws ValidationException, EntityNotFoundException {
-        User booker = booking.getBooker();
         Long itemUserId = booking.getItem().getOwner().getId();
         booking.setStatus(REJECTED);
-        when(userRepository.findById(itemUserId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(itemUserId, REJECTED,
-                PageRequest.of(0, 20, Sort.by("start").descending())))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "REJECTED", 0, 20);
+        when(bookingRepository.search(filterOf(itemUserId, true, BookingState.REJECTED), eq(PageRequest.of(0, 20))))
+                .thenReturn(Collections.singletonList(BookingMapper.toBookingListDto(booking)));
+        List<BookingListDto> bookingDtoList = bookingService.getAllBookingByOwner(itemUserId, "REJECTED", 0, 20);
         assertEquals(bookingDtoList.size(), 1);
         assertEquals(booking.getId(), bookingDtoList.get(0).getId());
         assertEquals(booking.getStart(), bookingDtoList.get(0).getStart());
         assertEquals(booking.getEnd(), bookingDtoList.get(0).getEnd());
-        assertEquals(booking.getBooker().getName(), bookingDtoList.get(0).getBooker().getName());
-        verify(bookingRepository, times(1)).searchBookingsByItemOwnerIdAndStatusEqualsOrderByStatusDesc(itemUserId, REJECTED,
-                PageRequest.of(0, 20, Sort.by("start").descending()));
+        assertEquals(booking.getBooker().getId(), bookingDtoList.get(0).getBooker().getId());
+        verify(bookingRepository, times(1)).search(filterOf(itemUserId, true, BookingState.REJECTED), eq(PageRequest.of(0, 20)));
     }
 
     @Test
@@ -282,16 +347,81 @@ public class BookingServiceTest {
                 bookingId, null));
         assertNotNull(throwable.getMessage());
         assertEquals("Ошибка подтверждения бронирования: отсутствует булевое значение для подтверждения бронирования", throwable.getMessage());
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyLong(), anyLong(), any());
+        verify(bookingRepository, never()).findById(bookingId);
+    }
+
+    @Test
+    public void approveWaitingBooking() throws ValidationException, EntityNotFoundException {
+        Long bookingId = booking.getId();
+        Long itemUserId = booking.getItem().getOwner().getId();
+        when(bookingRepository.updateStatusIfWaiting(bookingId, itemUserId, APPROVED)).thenReturn(1);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        BookingDto bookingDto = bookingService.approve(itemUserId, bookingId, true);
+        assertEquals(APPROVED, bookingDto.getStatus());
+        verify(bookingRepository, times(1)).updateStatusIfWaiting(bookingId, itemUserId, APPROVED);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void approveBookingRejectsOverlappingWaiting() throws ValidationException, EntityNotFoundException {
+        Long bookingId = booking.getId();
+        Long itemUserId = booking.getItem().getOwner().getId();
+        Long itemId = booking.getItem().getId();
+        Booking overlapping = new Booking(2L, booking.getStart().plusHours(1), booking.getEnd().plusDays(1),
+                booking.getItem(), booking.getBooker(), WAITING);
+        Booking concurrent = new Booking(3L, booking.getEnd().plusDays(2), booking.getEnd().plusDays(3),
+                booking.getItem(), booking.getBooker(), WAITING);
+        when(bookingRepository.findActiveIntervals(any(), any())).thenReturn(List.of(
+                toBookingDtoShort(booking), toBookingDtoShort(overlapping)));
+        bookingIntervalIndex.warmUp();
+        assertTrue(bookingIntervalIndex.tryReserve(itemId, concurrent.getStart(), concurrent.getEnd()));
+        when(bookingRepository.updateStatusIfWaiting(bookingId, itemUserId, APPROVED)).thenReturn(1);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findOverlappingWaitingForUpdate(itemId, bookingId, booking.getStart(), booking.getEnd()))
+                .thenReturn(List.of(overlapping));
+        when(bookingRepository.rejectWaiting(List.of(overlapping.getId()))).thenReturn(1);
+        bookingService.approve(itemUserId, bookingId, true);
+        verify(bookingRepository, times(1)).rejectWaiting(List.of(overlapping.getId()));
+        assertTrue(bookingIntervalIndex.tryReserve(itemId, booking.getEnd(), overlapping.getEnd()));
+        assertFalse(bookingIntervalIndex.tryReserve(itemId, concurrent.getStart(), concurrent.getEnd()));
+        assertFalse(bookingIntervalIndex.tryReserve(itemId, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    public void rejectWaitingBookingReleasesInterval() throws ValidationException, EntityNotFoundException {
+        Long bookingId = booking.getId();
+        Long itemUserId = booking.getItem().getOwner().getId();
+        Long itemId = booking.getItem().getId();
+        assertTrue(bookingIntervalIndex.tryReserve(itemId, booking.getStart(), booking.getEnd()));
+        booking.setStatus(REJECTED);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, itemUserId, REJECTED)).thenReturn(1);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        BookingDto bookingDto = bookingService.approve(itemUserId, bookingId, false);
+        assertEquals(REJECTED, bookingDto.getStatus());
+        assertTrue(bookingIntervalIndex.tryReserve(itemId, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    public void approveRejectedBooking() {
+        Long bookingId = booking.getId();
+        Long itemUserId = booking.getItem().getOwner().getId();
+        booking.setStatus(REJECTED);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, itemUserId, APPROVED)).thenReturn(0);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        Throwable throwable = assertThrows(ValidationException.class, () -> bookingService.approve(itemUserId,
+                bookingId, true));
+        assertEquals("Ошибка подтверждения бронирования: бронирование уже рассмотрено", throwable.getMessage());
     }
 
     @Test
     public void approveSettledBooking() {
         Long bookingId = booking.getId();
+        Long strangerId = booking.getBooker().getId();
         booking.setStatus(WAITING);
-        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(bookingRepository.updateStatusIfWaiting(bookingId, strangerId, APPROVED)).thenReturn(0);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        Throwable throwable = assertThrows(EntityNotFoundException.class, () -> bookingService.approve(anyLong(),
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () -> bookingService.approve(strangerId,
                 bookingId, true));
         assertNotNull(throwable.getMessage());
         assertEquals("Ошибка подтверждения бронирования: передан запрос на подтверждение бронирования чужой вещи", throwable.getMessage());
@@ -329,10 +459,23 @@ public class BookingServiceTest {
 
     @Test
     public void getAllBookingsUnknownUser() {
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Передан неверный id пользователя"));
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 bookingService.getAll(3L, "ALL", 0, 20));
-        assertEquals("Передан неверный id пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка при получении всех бронирований: передан неверный Id пользователя", throwable.getMessage());
+        verify(userRepository, times(1)).existsById(3L);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void getAllBookingsDeletedUser() {
+        Long bookerId = booking.getBooker().getId();
+        userExistenceService.remove(bookerId);
+        assertThrows(EntityNotFoundException.class, () -> bookingService.getAll(bookerId, "ALL", 0, 20));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    private static BookingFilter filterOf(long userId, boolean byOwner, BookingState state) {
+        return argThat(filter -> filter.getUserId() == userId && filter.isByOwner() == byOwner
+                && filter.getState() == state && filter.getNow() != null);
     }
 }
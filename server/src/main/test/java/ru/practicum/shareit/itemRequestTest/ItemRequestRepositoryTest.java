@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -53,4 +54,20 @@ public class ItemRequestRepositoryTest {
         assertEquals(itemRequest.getDescription(), itemRequests.get(0).getDescription());
         assertEquals(itemRequest.getCreated(), itemRequests.get(0).getCreated());
     }
+
+    @Test
+    void getAllOtherRequestsAfterCursor() {
+        User other = userRepository.save(new User(2L, "other", "other@test.ru"));
+        ItemRequest next = itemRequestRepository.save(new ItemRequest(2L, "itemRequest2", other,
+                itemRequest.getCreated().plusMinutes(1)));
+        final List<ItemRequest> firstPage = itemRequestRepository.findAllByRequesterIdNot(other.getId(),
+                PageRequest.of(0, 20));
+        assertEquals(1, firstPage.size());
+        assertEquals(itemRequest.getId(), firstPage.get(0).getId());
+        long unknownRequesterId = Math.max(itemRequest.getRequester().getId(), other.getId()) + 1;
+        final List<ItemRequest> afterFirst = itemRequestRepository.findAllByRequesterIdNotAfter(unknownRequesterId,
+                itemRequest.getCreated(), itemRequest.getId(), PageRequest.of(0, 20));
+        assertEquals(1, afterFirst.size());
+        assertEquals(next.getId(), afterFirst.get(0).getId());
+    }
 }
@@ -4,14 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.mapper.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItemList;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -19,6 +20,7 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -35,15 +37,17 @@ public class ItemRequestServiceTest {
     private ItemRequestRepository itemRequestRepository;
     private ItemRequestMapper itemRequestMapper;
     private UserRepository userRepository;
+    private ItemRepository itemRepository;
     private ItemRequest itemRequest;
 
     @BeforeEach
     public void beforeEach() {
         itemRequestRepository = mock(ItemRequestRepository.class);
         userRepository = mock(UserRepository.class);
-        ItemRepository itemRepository = mock(ItemRepository.class);
+        itemRepository = mock(ItemRepository.class);
         itemRequestMapper = new ItemRequestMapper(itemRepository);
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRequestMapper, userRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRequestMapper, userRepository,
+                new UserExistenceService(userRepository));
         itemRequest = createItemRequestExample();
     }
 
@@ -71,8 +75,7 @@ public class ItemRequestServiceTest {
     public void getItemRequest() throws EntityNotFoundException {
         Long itemRequestId = itemRequest.getId();
         Long userId = itemRequest.getRequester().getId();
-        User user = itemRequest.getRequester();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.of(itemRequest));
         ItemRequestDtoWithItemList itemRequestDtoWithItems = itemRequestService.getItemRequest(userId, itemRequestId);
         assertEquals(itemRequestId, itemRequestDtoWithItems.getId());
@@ -88,6 +91,7 @@ public class ItemRequestServiceTest {
         User user = itemRequest.getRequester();
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId))
                 .thenReturn(Collections.singletonList(itemRequest));
         itemRequestService.create(itemRequestMapper.toItemRequestDto(itemRequest), userId);
@@ -100,20 +104,65 @@ public class ItemRequestServiceTest {
                 .findAllByRequesterIdOrderByCreatedDesc(userId);
     }
 
+    @Test
+    public void getAllItemRequestsWithItems() throws EntityNotFoundException {
+        Long userId = itemRequest.getRequester().getId();
+        ItemRequest otherItemRequest = new ItemRequest(2L, "otherDescription", itemRequest.getRequester(),
+                LocalDateTime.now());
+        User owner = new User(2L, "owner", "owner@test.ru");
+        Item item = new Item(1L, "testItem", "itemDescription", true, owner, itemRequest);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId))
+                .thenReturn(List.of(itemRequest, otherItemRequest));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item));
+        final List<ItemRequestDtoWithItemList> itemRequestDtoWithItems = itemRequestService.getAll(userId);
+        assertEquals(2, itemRequestDtoWithItems.size());
+        assertEquals(1, itemRequestDtoWithItems.get(0).getItems().size());
+        assertEquals(item.getId(), itemRequestDtoWithItems.get(0).getItems().get(0).getId());
+        assertTrue(itemRequestDtoWithItems.get(1).getItems().isEmpty());
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(List.of(1L, 2L));
+        verify(itemRepository, never()).findAllByItemRequestId(anyLong());
+    }
+
     @Test
     public void getAllItemRequestWithPageableEmpty() throws EntityNotFoundException {
         Long userId = itemRequest.getRequester().getId();
         User user = itemRequest.getRequester();
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findAll(PageRequest.of(0, 20, Sort.by("created"))))
-                .thenReturn(Page.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(0, 20)))
+                .thenReturn(Collections.emptyList());
         itemRequestService.create(itemRequestMapper.toItemRequestDto(itemRequest), userId);
         final List<ItemRequestDtoWithItemList> itemRequestDtoWithItems = itemRequestService
                 .getAllWithPageable(userId, 0, 20);
         assertTrue(itemRequestDtoWithItems.isEmpty());
         verify(itemRequestRepository, times(1))
-                .findAll(PageRequest.of(0, 20, Sort.by("created")));
+                .findAllByRequesterIdNot(userId, PageRequest.of(0, 20));
+    }
+
+    @Test
+    public void getAllItemRequestsByCursor() throws EntityNotFoundException, ValidationException {
+        User user = new User(2L, "other", "other@test.ru");
+        ItemRequest nextItemRequest = new ItemRequest(2L, "itemRequestDescription2", itemRequest.getRequester(),
+                itemRequest.getCreated().plusMinutes(1));
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(itemRequestRepository.findAllByRequesterIdNot(user.getId(), PageRequest.of(0, 1)))
+                .thenReturn(List.of(itemRequest));
+        when(itemRequestRepository.findAllByRequesterIdNotAfter(user.getId(), itemRequest.getCreated(),
+                itemRequest.getId(), PageRequest.of(0, 1))).thenReturn(List.of(nextItemRequest));
+        ItemRequestPageDto firstPage = itemRequestService.getAllAfter(user.getId(), "", 1);
+        assertEquals(itemRequest.getId(), firstPage.getRequests().get(0).getId());
+        assertNotNull(firstPage.getNextCursor());
+        ItemRequestPageDto secondPage = itemRequestService.getAllAfter(user.getId(), firstPage.getNextCursor(), 1);
+        assertEquals(nextItemRequest.getId(), secondPage.getRequests().get(0).getId());
+    }
+
+    @Test
+    public void getAllItemRequestsByInvalidCursor() {
+        Throwable throwable = assertThrows(ValidationException.class, () ->
+                itemRequestService.getAllAfter(1L, "broken", 20));
+        assertEquals("Ошибка пагинации: передан неверный курсор", throwable.getMessage());
     }
 
     @Test
@@ -128,28 +177,28 @@ public class ItemRequestServiceTest {
     @Test
     public void getItemRequestUnknownUser() {
         Long itemRequestId = itemRequest.getId();
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Передан неверный id пользователя"));
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        when(userRepository.existsById(3L)).thenReturn(false);
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 itemRequestService.getItemRequest(3L, itemRequestId));
-        assertEquals("Передан неверный id пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка получении запроса: передан неверный id пользователя", throwable.getMessage());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     public void getAllItemRequestsUnknownUser() {
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Передан неверный id пользователя"));
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        when(userRepository.existsById(3L)).thenReturn(false);
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 itemRequestService.getAll(3L));
-        assertEquals("Передан неверный id пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка при получении запросов: передан неверный id пользователя", throwable.getMessage());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     public void getAllItemRequestWithPageableUnknownUser() {
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Передан неверный id пользователя"));
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        when(userRepository.existsById(3L)).thenReturn(false);
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 itemRequestService.getAllWithPageable(3L, 0, 20));
-        assertEquals("Передан неверный id пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка при получении запроса с пагинацией: передан неверный id пользователя", throwable.getMessage());
+        verify(userRepository, never()).findById(anyLong());
     }
 }
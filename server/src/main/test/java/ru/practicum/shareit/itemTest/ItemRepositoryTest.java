@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -42,14 +44,14 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void searchItem() {
-        final String text = item.getName().substring(0, 3);
-        final List<Item> items = itemRepository.findByText(text, Pageable.unpaged());
+    public void findAllForSearch() {
+        itemRepository.save(new Item(2L, "unavailableItem", "testDescription", false, user1, null));
+        final List<ItemDto> items = itemRepository.findAllForSearch();
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getId(), item.getId());
         assertEquals(items.get(0).getName(), item.getName());
         assertEquals(items.get(0).getDescription(), item.getDescription());
-        assertEquals(items.get(0).getItemRequest(), item.getItemRequest());
+        assertEquals(items.get(0).getRequestId(), itemRequest.getId());
     }
 
     @Test
@@ -62,6 +64,19 @@ public class ItemRepositoryTest {
         assertEquals(items.get(0).getItemRequest(), item.getItemRequest());
     }
 
+    @Test
+    public void getAllItemsByRequestIds() {
+        ItemRequest otherItemRequest = itemRequestRepository.save(new ItemRequest(2L, "otherItemRequest", user1,
+                LocalDateTime.now()));
+        Item otherItem = itemRepository.save(new Item(2L, "otherItem", "otherDescription", true, user1,
+                otherItemRequest));
+        final List<Item> items = itemRepository.findAllByItemRequestIdIn(
+                List.of(itemRequest.getId(), otherItemRequest.getId()));
+        assertEquals(items.size(), 2);
+        assertTrue(items.stream().anyMatch(found -> found.getId().equals(item.getId())));
+        assertTrue(items.stream().anyMatch(found -> found.getId().equals(otherItem.getId())));
+    }
+
     @Test
     public void getAllOwnerId() {
         final List<Item> items = itemRepository.findByOwnerId(user1.getId(), Pageable.unpaged());
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.itemTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllForSearch()).thenReturn(List.of(
+                new ItemDto(1L, "Дрель", "Простая дрель", true, null),
+                new ItemDto(2L, "Отвертка", "Аккумуляторная отвертка", true, null),
+                new ItemDto(3L, "Клей Момент", "Тюбик суперклея марки Момент", true, null)));
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+        itemSearchIndex.warmUp();
+    }
+
+    @Test
+    public void searchByPrefixIgnoringCase() {
+        List<ItemDto> items = itemSearchIndex.search("оТверТ", 0, 10);
+        assertEquals(1, items.size());
+        assertEquals(2L, items.get(0).getId());
+        assertEquals(2L, itemSearchIndex.search("аккУМУляторная", 0, 10).get(0).getId());
+    }
+
+    @Test
+    public void searchRanksNameMatchesFirst() {
+        itemSearchIndex.index(new ItemDto(4L, "Шуруповерт", "Мощнее, чем дрель", true, null));
+        List<ItemDto> items = itemSearchIndex.search("дрель", 0, 10);
+        assertEquals(2, items.size());
+        assertEquals(1L, items.get(0).getId());
+        assertEquals(4L, items.get(1).getId());
+        assertEquals(4L, itemSearchIndex.search("дрель", 1, 10).get(0).getId());
+    }
+
+    @Test
+    public void searchRequiresAllWords() {
+        assertEquals(3L, itemSearchIndex.search("клей момент", 0, 10).get(0).getId());
+        assertTrue(itemSearchIndex.search("клей дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void unavailableItemRemovedFromIndex() {
+        itemSearchIndex.index(new ItemDto(1L, "Дрель", "Простая дрель", false, null));
+        assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty());
+    }
+}
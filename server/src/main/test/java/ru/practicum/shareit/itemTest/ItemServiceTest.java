@@ -1,5 +1,6 @@
 package ru.practicum.shareit.itemTest;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,8 +9,9 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,14 +22,18 @@ import ru.practicum.shareit.item.mapper.ReviewMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Review;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ReviewEligibility;
 import ru.practicum.shareit.item.repository.ReviewRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -36,7 +42,6 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
-import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 
 @ExtendWith(MockitoExtension.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -59,8 +64,10 @@ public class ItemServiceTest {
         userRepository = mock(UserRepository.class);
         reviewRepository = mock(ReviewRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        itemService = new ItemServiceImpl(itemRepository, userRepository, reviewRepository, bookingRepository,
-                itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, new UserExistenceService(userRepository),
+                reviewRepository, bookingRepository,
+                itemRequestRepository, new ItemSearchIndex(itemRepository),
+                new ItemDetailsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)));
         item = createValidItemExample();
         comment = createValidCommentExample(item,user);
     }
@@ -76,16 +83,12 @@ public class ItemServiceTest {
         return new Review(1L, "testComment", item, user, LocalDateTime.now());
     }
 
-    private Booking createValidBookingExample(Item item, User user) {
-        return new Booking(1L, LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(2), item, user,
-                APPROVED);
-    }
-
     @Test
     public void createValidItem() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
@@ -128,7 +131,8 @@ public class ItemServiceTest {
     public void getItemById() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
@@ -142,11 +146,48 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).findById(itemId);
     }
 
+    @Test
+    public void getItemByIdFromCache() throws EntityNotFoundException {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwner().getId();
+        Long otherUserId = item.getItemRequest().getRequester().getId();
+        ItemBookingView lastBooking = mock(ItemBookingView.class);
+        when(lastBooking.getId()).thenReturn(1L);
+        when(lastBooking.getBookerId()).thenReturn(otherUserId);
+        when(lastBooking.getItemId()).thenReturn(itemId);
+        when(lastBooking.getKind()).thenReturn(ItemBookingView.LAST);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any())).thenReturn(item);
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any())).thenReturn(List.of(lastBooking));
+        ItemInfoDto ownerView = itemService.getItem(itemId, ownerId);
+        ItemInfoDto otherView = itemService.getItem(itemId, otherUserId);
+        assertEquals(1L, ownerView.getLastBooking().getId());
+        assertNull(otherView.getLastBooking());
+        verify(itemRepository, times(1)).findById(itemId);
+        itemService.update(ownerId, itemId, new ItemDto(null, "updatedItem", null, null, null));
+        assertEquals("updatedItem", itemService.getItem(itemId, ownerId).getName());
+        verify(itemRepository, times(3)).findById(itemId);
+        verify(bookingRepository, times(2)).findLastAndNextByItemIds(anyCollection(), any());
+    }
+
+    @Test
+    public void getItemExpiresAtBookingBoundary() throws EntityNotFoundException {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwner().getId();
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.findNextBoundary(eq(itemId), any())).thenReturn(LocalDateTime.now().minusSeconds(1));
+        itemService.getItem(itemId, ownerId);
+        itemService.getItem(itemId, ownerId);
+        verify(itemRepository, times(2)).findById(itemId);
+        verify(bookingRepository, times(2)).findLastAndNextByItemIds(anyCollection(), any());
+    }
+
     @Test
     public void getItemByIdWithReview() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
@@ -165,7 +206,8 @@ public class ItemServiceTest {
     public void getAllItemsByUserId() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
@@ -184,7 +226,8 @@ public class ItemServiceTest {
     public void getAllItemsByUserIdWithReview() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
@@ -200,38 +243,57 @@ public class ItemServiceTest {
         verify(itemRepository, times(1)).findByOwnerId(userId, PageRequest.of(0, 20));
     }
 
+    @Test
+    public void getAllItemsByUserIdWithBookings() {
+        Long userId = item.getOwner().getId();
+        ItemBookingView lastBooking = mock(ItemBookingView.class);
+        when(lastBooking.getId()).thenReturn(1L);
+        when(lastBooking.getBookerId()).thenReturn(2L);
+        when(lastBooking.getItemId()).thenReturn(item.getId());
+        when(lastBooking.getKind()).thenReturn(ItemBookingView.LAST);
+        when(itemRepository.findByOwnerId(userId, PageRequest.of(0, 20)))
+                .thenReturn(Collections.singletonList(item));
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any()))
+                .thenReturn(Collections.singletonList(lastBooking));
+        when(reviewRepository.findAllByItemIdIn(anyCollection())).thenReturn(Collections.singletonList(comment));
+        final List<ItemInfoDto> itemDtoBookings = itemService.getAllItemsByUser(userId, 0, 20);
+        assertEquals(1L, itemDtoBookings.get(0).getLastBooking().getId());
+        assertEquals(2L, itemDtoBookings.get(0).getLastBooking().getBookerId());
+        assertNull(itemDtoBookings.get(0).getNextBooking());
+        assertEquals(1, itemDtoBookings.get(0).getComments().size());
+        assertEquals(comment.getText(), itemDtoBookings.get(0).getComments().get(0).getText());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(anyCollection(), any());
+        verify(reviewRepository, times(1)).findAllByItemIdIn(anyCollection());
+    }
+
     @Test
     public void findByTextTest() throws EntityNotFoundException {
         Long itemId = item.getId();
         Long userId = item.getOwner().getId();
-        final List<Item> items = new ArrayList<>();
-        items.add(item);
         String text = item.getDescription().substring(0, 3);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
-        when(itemRepository.findByText(text, PageRequest.of(0, 20))).thenReturn(items);
         itemService.create(userId, ItemMapper.toItemDto(item));
-        final List<ItemDto> itemDtoList = itemService.findByText(text, 0, 20);
+        final List<ItemDto> itemDtoList = itemService.findByText(text.toUpperCase(), 0, 20);
+        assertEquals(1, itemDtoList.size());
         assertEquals(itemId, itemDtoList.get(0).getId());
         assertEquals(item.getName(), itemDtoList.get(0).getName());
         assertEquals(item.getDescription(), itemDtoList.get(0).getDescription());
         assertEquals(item.getAvailable(), itemDtoList.get(0).getAvailable());
-        verify(itemRepository, times(1)).findByText(text, PageRequest.of(0, 20));
     }
 
     @Test
     public void findByNullText() throws EntityNotFoundException {
         Long userId = item.getOwner().getId();
-        final List<Item> items = new ArrayList<>();
-        items.add(item);
         String text = "";
-        when(userRepository.findById(userId)).thenReturn(Optional.of(item.getOwner()));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(item.getOwner());
         when(itemRequestRepository.findById(item.getItemRequest().getId()))
                 .thenReturn(Optional.of(item.getItemRequest()));
         when(itemRepository.save(item)).thenReturn(item);
-        when(itemRepository.findByText(text, PageRequest.of(0, 20))).thenReturn(items);
         itemService.create(userId, ItemMapper.toItemDto(item));
         final List<ItemDto> itemDtoList = itemService.findByText(text, 0, 20);
         assertEquals(new ArrayList<>(), itemDtoList);
@@ -241,14 +303,11 @@ public class ItemServiceTest {
     public void createCommentForItem() throws ValidationException, EntityNotFoundException {
         User userWriteComment = item.getItemRequest().getRequester();
         Review comment = createValidCommentExample(item, userWriteComment);
-        Booking booking = createValidBookingExample(item, userWriteComment);
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(userWriteComment.getId())).thenReturn(Optional.of(userWriteComment));
-        List<Booking> bookingsList = new ArrayList<>();
-        bookingsList.add(booking);
-        when(bookingRepository
-                .searchBookingByBookerIdAndItemIdAndEndIsBeforeAndStatus(anyLong(), anyLong(), any(), any()))
-                .thenReturn(bookingsList);
+        ReviewEligibility eligibility = eligibility(true, true, true);
+        when(reviewRepository.checkEligibility(eq(userWriteComment.getId()), eq(item.getId()), any()))
+                .thenReturn(eligibility);
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(userWriteComment.getId())).thenReturn(userWriteComment);
         when(reviewRepository.save(any(Review.class))).thenReturn(comment);
         ReviewDto commentDto1 = ReviewMapper.toReviewDto(comment);
         ReviewDto commentDto = itemService.createReview(userWriteComment.getId(), item.getId(), commentDto1);
@@ -256,15 +315,37 @@ public class ItemServiceTest {
         assertEquals(userWriteComment.getName(), commentDto.getAuthorName());
         assertEquals(comment.getId(), commentDto.getId());
         verify(reviewRepository, times(1)).save(any());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void createCommentWithoutFinishedBooking() {
+        Review comment = createValidCommentExample(item, user);
+        ReviewEligibility eligibility = eligibility(true, true, false);
+        when(reviewRepository.checkEligibility(anyLong(), anyLong(), any())).thenReturn(eligibility);
+        Throwable throwable = assertThrows(ValidationException.class, () ->
+                itemService.createReview(user.getId(), item.getId(), ReviewMapper.toReviewDto(comment)));
+        assertEquals("Ошибка при создании отзыва: передан запрос на создание отзыва при отсуствии бронирования вещи",
+                throwable.getMessage());
+        verify(reviewRepository, never()).save(any());
+    }
+
+    private static ReviewEligibility eligibility(boolean itemExists, boolean authorExists, boolean hasFinishedBooking) {
+        ReviewEligibility eligibility = mock(ReviewEligibility.class);
+        when(eligibility.getItemExists()).thenReturn(itemExists);
+        when(eligibility.getAuthorExists()).thenReturn(authorExists);
+        when(eligibility.getHasFinishedBooking()).thenReturn(hasFinishedBooking);
+        return eligibility;
     }
 
     @Test
     public void createItemUnknownUser() {
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Неверный идентификатор пользователя"));
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        when(userRepository.existsById(3L)).thenReturn(false);
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 itemService.create(3L, ItemMapper.toItemDto(item)));
-        assertEquals("Неверный идентификатор пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка при создании вещи: передан неверный Id пользователя", throwable.getMessage());
+        verify(itemRepository, never()).save(any());
     }
 
     @Test
@@ -290,12 +371,12 @@ public class ItemServiceTest {
     public void createCommentUnknownUser() {
         User userWriteComment = item.getItemRequest().getRequester();
         Review comment = createValidCommentExample(item, userWriteComment);
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(anyLong())).thenThrow(new ArrayIndexOutOfBoundsException("Неверный идентификатор пользователя"));
+        ReviewEligibility eligibility = eligibility(true, false, false);
+        when(reviewRepository.checkEligibility(eq(3L), eq(item.getId()), any())).thenReturn(eligibility);
         ReviewDto commentDto1 = ReviewMapper.toReviewDto(comment);
-        Throwable throwable = assertThrows(ArrayIndexOutOfBoundsException.class, () ->
+        Throwable throwable = assertThrows(EntityNotFoundException.class, () ->
                 itemService.createReview(3L, item.getId(), commentDto1));
-        assertEquals("Неверный идентификатор пользователя", throwable.getMessage());
-        verify(userRepository, times(1)).findById(anyLong());
+        assertEquals("Ошибка при создании отзыва: неверный Id пользователя", throwable.getMessage());
+        verify(reviewRepository, never()).save(any());
     }
 }
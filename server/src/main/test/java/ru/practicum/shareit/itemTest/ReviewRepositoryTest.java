@@ -6,9 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Review;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ReviewEligibility;
 import ru.practicum.shareit.item.repository.ReviewRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -17,6 +20,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
 
 @DataJpaTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -26,6 +33,7 @@ public class ReviewRepositoryTest {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
+    private final BookingRepository bookingRepository;
 
     private Item item;
     private Review review;
@@ -45,4 +53,28 @@ public class ReviewRepositoryTest {
         assertEquals(review.getId(), reviews.get(0).getId());
         assertEquals(review.getText(), reviews.get(0).getText());
     }
+
+    @Test
+    public void checkEligibilityTest() {
+        User booker = userRepository.save(new User(2L, "testBooker", "booker@test.ru"));
+        bookingRepository.save(new Booking(1L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(2),
+                item, booker, APPROVED));
+        bookingRepository.save(new Booking(2L, LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(2),
+                item, item.getOwner(), REJECTED));
+
+        ReviewEligibility eligible = reviewRepository.checkEligibility(booker.getId(), item.getId(), LocalDateTime.now());
+        assertTrue(eligible.getItemExists());
+        assertTrue(eligible.getAuthorExists());
+        assertTrue(eligible.getHasFinishedBooking());
+
+        ReviewEligibility rejected = reviewRepository.checkEligibility(item.getOwner().getId(), item.getId(),
+                LocalDateTime.now());
+        assertFalse(rejected.getHasFinishedBooking());
+
+        ReviewEligibility unknown = reviewRepository.checkEligibility(booker.getId() + 100, item.getId() + 100,
+                LocalDateTime.now());
+        assertFalse(unknown.getItemExists());
+        assertFalse(unknown.getAuthorExists());
+        assertFalse(unknown.getHasFinishedBooking());
+    }
 }
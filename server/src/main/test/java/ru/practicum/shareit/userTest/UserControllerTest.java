@@ -10,6 +10,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -17,10 +18,12 @@ import ru.practicum.shareit.user.service.UserService;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -75,6 +78,38 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{\"id\": 1,\"name\": \"test\",\"email\": \"test@test.ru\"}]"));
         verify(userService, times(1)).getAll();
+        verify(userService, never()).getAll(anyInt(), anyInt());
+    }
+
+    @Test
+    public void getAllUsersPaged() throws Exception {
+        List<UserDto> userDtoList = new ArrayList<>();
+        userDtoList.add(userDto);
+        when(userService.getAll(0, 20)).thenReturn(userDtoList);
+        mockMvc.perform(get("/users").param("from", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\": 1,\"name\": \"test\",\"email\": \"test@test.ru\"}]"));
+        verify(userService, times(1)).getAll(0, 20);
+        verify(userService, never()).getAll();
+    }
+
+    @Test
+    public void streamAllUsers() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(new UserDto(2L, "test2", "test2@test.ru"));
+            return null;
+        }).when(userService).streamAll(any());
+        MvcResult result = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1,\"name\":\"test\",\"email\":\"test@test.ru\"}\n"
+                        + "{\"id\":2,\"name\":\"test2\",\"email\":\"test2@test.ru\"}\n"));
+        verify(userService, never()).getAll(anyInt(), anyInt());
     }
 
     @Test
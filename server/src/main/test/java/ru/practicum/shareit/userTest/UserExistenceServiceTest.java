@@ -0,0 +1,57 @@
+package ru.practicum.shareit.userTest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExistenceServiceTest {
+    private UserRepository userRepository;
+    private UserExistenceService userExistenceService;
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 5L));
+        userExistenceService = new UserExistenceService(userRepository);
+        userExistenceService.warmUp();
+    }
+
+    @Test
+    public void knownUserExists() {
+        assertTrue(userExistenceService.exists(2L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    public void gapBelowMaxIdRejectedWithoutQuery() {
+        assertFalse(userExistenceService.exists(3L));
+        assertFalse(userExistenceService.exists(-1L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    public void newerUserCheckedInRepository() {
+        when(userRepository.existsById(10L)).thenReturn(true);
+        assertTrue(userExistenceService.exists(10L));
+        assertTrue(userExistenceService.exists(10L));
+        verify(userRepository, times(1)).existsById(10L);
+    }
+
+    @Test
+    public void addAndRemoveUser() {
+        userExistenceService.add(6L);
+        assertTrue(userExistenceService.exists(6L));
+        userExistenceService.remove(2L);
+        assertFalse(userExistenceService.exists(2L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.userTest;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findByIdServedFromSecondLevelCache() {
+        User user = userRepository.save(new User(null, "user1", "user1@test.ru"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals("user1", userRepository.findById(user.getId()).orElseThrow().getName());
+        assertEquals("user1", userRepository.findById(user.getId()).orElseThrow().getName());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void streamAllReturnsUsersInIdOrder() {
+        User first = userRepository.save(new User(null, "user1", "user1@test.ru"));
+        User second = userRepository.save(new User(null, "user2", "user2@test.ru"));
+        List<UserDto> streamed = new ArrayList<>();
+
+        userRepository.streamAll(streamed::add);
+
+        assertEquals(List.of(new UserDto(first.getId(), "user1", "user1@test.ru"),
+                new UserDto(second.getId(), "user2", "user2@test.ru")), streamed);
+    }
+}
@@ -6,12 +6,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.mapper.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
@@ -33,7 +35,7 @@ public class UserServiceTest {
     @BeforeEach
     void beforeEach() {
         userRepository = mock(UserRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserExistenceService(userRepository));
         user = createValidUserExample();
     }
 
@@ -70,15 +72,25 @@ public class UserServiceTest {
     public void getAllUsers() {
         Long userId = user.getId();
         when(userRepository.save(user)).thenReturn(user);
-        when(userRepository.findAll()).thenReturn(Collections.singletonList(user));
+        when(userRepository.findAllByOrderById(PageRequest.of(0, 20))).thenReturn(Collections.singletonList(user));
         userService.create(UserMapper.toUserDto(user));
-        final List<UserDto> userDtoList = userService.getAll();
+        final List<UserDto> userDtoList = userService.getAll(0, 20);
         assertEquals(userDtoList.size(), 1);
         assertEquals(userId, userDtoList.get(0).getId());
         assertEquals(user.getName(), userDtoList.get(0).getName());
         assertEquals(user.getEmail(), userDtoList.get(0).getEmail());
         verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).findAllByOrderById(PageRequest.of(0, 20));
+    }
+
+    @Test
+    public void getAllUsersUnpaged() {
+        when(userRepository.findAll()).thenReturn(Collections.singletonList(user));
+        final List<UserDto> userDtoList = userService.getAll();
+        assertEquals(1, userDtoList.size());
+        assertEquals(user.getId(), userDtoList.get(0).getId());
         verify(userRepository, times(1)).findAll();
+        verify(userRepository, never()).findAllByOrderById(any());
     }
 
     @Test